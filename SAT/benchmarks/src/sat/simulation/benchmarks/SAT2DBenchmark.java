@@ -0,0 +1,183 @@
+package sat.simulation.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Intersector.MinimumTranslationVector;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Vector2;
+
+import sat.simulation.ConvexPolygon2D;
+import sat.simulation.SAT;
+import sat.simulation.SatContext2D;
+
+/**
+ * 2D SAT entry points against libGDX's Intersector.overlapConvexPolygons on the same polygon pairs.
+ * Scores are per pair. The convex benchmarks run the same pairs as ConvexPolygon2Ds, whose axes are
+ * cached per shape and which hill climb their projections from 16 vertices up.
+ *
+ * @author Matt Stone
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SAT2DBenchmark
+{
+	private static final int PAIRS = 256;
+
+	@Param({ "3", "8", "32" })
+	public int vertexCount;
+
+	/** how deep the hitting pairs overlap, as a fraction of the polygons' inscribed circles */
+	@Param({ "0.1", "0.9" })
+	public float overlap;
+
+	/** fraction of pairs that collide */
+	@Param({ "0.0", "0.5", "1.0" })
+	public float hitRatio;
+
+	private float[][] obj1 = new float[PAIRS][];
+	private float[][] obj2 = new float[PAIRS][];
+	private Polygon[] polygon1 = new Polygon[PAIRS];
+	private Polygon[] polygon2 = new Polygon[PAIRS];
+	private ConvexPolygon2D[] convex1 = new ConvexPolygon2D[PAIRS];
+	private ConvexPolygon2D[] convex2 = new ConvexPolygon2D[PAIRS];
+	private final SatContext2D context = new SatContext2D();
+	private final Vector2 mtv = new Vector2();
+	private final MinimumTranslationVector intersectorMtv = new MinimumTranslationVector();
+
+	@Setup
+	public void setUp()
+	{
+		Shapes.polygonPairs(new Random(42), vertexCount, overlap, hitRatio, obj1, obj2);
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			polygon1[i] = new Polygon(obj1[i]);
+			polygon2[i] = new Polygon(obj2[i]);
+			convex1[i] = new ConvexPolygon2D(obj1[i]);
+			convex2[i] = new ConvexPolygon2D(obj2[i]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public int PolygonCollide_2D_v1()
+	{
+		int hits = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (SAT.PolygonCollide_2D_v1(null, obj1[i], obj2[i]))
+			{
+				++hits;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public int PolygonCollide_2D()
+	{
+		int hits = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (SAT.PolygonCollide_2D(obj1[i], obj2[i]))
+			{
+				++hits;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public float PolygonCollide_2D_mtv()
+	{
+		float sum = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (SAT.PolygonCollide_2D_mtv(obj1[i], obj2[i], mtv))
+			{
+				sum += mtv.x;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public int PolygonCollide_2D_convex()
+	{
+		int hits = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (SAT.PolygonCollide_2D(context, convex1[i], convex2[i]))
+			{
+				++hits;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public float PolygonCollide_2D_convex_mtv()
+	{
+		float sum = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (SAT.PolygonCollide_2D_mtv(context, convex1[i], convex2[i], mtv))
+			{
+				sum += mtv.x;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public int Intersector_overlapConvexPolygons()
+	{
+		int hits = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (Intersector.overlapConvexPolygons(polygon1[i], polygon2[i]))
+			{
+				++hits;
+			}
+		}
+		return hits;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public float Intersector_overlapConvexPolygons_mtv()
+	{
+		float sum = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (Intersector.overlapConvexPolygons(obj1[i], obj2[i], intersectorMtv))
+			{
+				sum += intersectorMtv.depth;
+			}
+		}
+		return sum;
+	}
+}
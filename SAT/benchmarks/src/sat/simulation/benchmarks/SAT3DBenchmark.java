@@ -0,0 +1,103 @@
+package sat.simulation.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.badlogic.gdx.math.Vector3;
+
+import sat.simulation.SAT3D;
+
+/**
+ * SAT3D.CubeCollide_3D_mtv on pairs of rotated cubes. Scores are per pair. libGDX has no oriented
+ * box test to compare against.
+ *
+ * @author Matt Stone
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SAT3DBenchmark
+{
+	private static final int PAIRS = 256;
+
+	/** how deep the hitting pairs overlap, as a fraction of the cubes' inscribed spheres */
+	@Param({ "0.1", "0.9" })
+	public float overlap;
+
+	/** fraction of pairs that collide */
+	@Param({ "0.0", "0.5", "1.0" })
+	public float hitRatio;
+
+	private Vector3[][] obj1 = new Vector3[PAIRS][];
+	private Vector3[][] obj2 = new Vector3[PAIRS][];
+	private float[][] packed1 = new float[PAIRS][24];
+	private float[][] packed2 = new float[PAIRS][24];
+	private final Vector3 mtv = new Vector3();
+
+	@Setup
+	public void setUp()
+	{
+		Shapes.cubePairs(new Random(42), overlap, hitRatio, obj1, obj2);
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			pack(obj1[i], packed1[i]);
+			pack(obj2[i], packed2[i]);
+		}
+	}
+
+	private static void pack(Vector3[] vertices, float[] packed)
+	{
+		for (int i = 0; i < vertices.length; ++i)
+		{
+			packed[3 * i] = vertices[i].x;
+			packed[3 * i + 1] = vertices[i].y;
+			packed[3 * i + 2] = vertices[i].z;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public float CubeCollide_3D_mtv()
+	{
+		float sum = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (SAT3D.CubeCollide_3D_mtv(obj1[i], obj2[i], mtv))
+			{
+				sum += mtv.x;
+			}
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(PAIRS)
+	public float CubeCollide_3D_mtv_packed()
+	{
+		float sum = 0;
+		for (int i = 0; i < PAIRS; ++i)
+		{
+			if (SAT3D.CubeCollide_3D_mtv(packed1[i], packed2[i], mtv))
+			{
+				sum += mtv.x;
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,120 @@
+package sat.simulation.benchmarks;
+
+import java.util.Random;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Builds the shape pairs the benchmarks collide. Every pair is built so that it is certain to hit
+ * or certain to miss, independent of the algorithm under test.
+ *
+ * @author Matt Stone
+ */
+class Shapes
+{
+	/**
+	 * Builds pairs of regular polygons with circumradius 1 and random rotations.
+	 *
+	 * A hit pair's centers are closer than the diameter of the polygons' inscribed circle, scaled
+	 * down by overlap, so the polygons always overlap. A miss pair's centers are further apart than
+	 * the circumscribed circles reach, so they never do. Hits and misses are shuffled together so the
+	 * branch predictor can't learn the pattern.
+	 *
+	 * @param overlap how deep hit pairs overlap, in (0, 1].
+	 * @param hitRatio fraction of the pairs that hit, in [0, 1].
+	 * @param obj1 receives the first polygon of each pair, as counter clockwise x,y pairs.
+	 * @param obj2 receives the second polygon of each pair.
+	 */
+	static void polygonPairs(Random random, int vertexCount, float overlap, float hitRatio, float[][] obj1, float[][] obj2)
+	{
+		float inradius = MathUtils.cos(MathUtils.PI / vertexCount);
+		boolean[] hits = shuffledHits(random, obj1.length, hitRatio);
+		for (int i = 0; i < obj1.length; ++i)
+		{
+			float distance = hits[i] ? 2 * inradius * (1 - overlap) : 2.1f;
+			float direction = random.nextFloat() * MathUtils.PI2;
+			obj1[i] = regularPolygon(vertexCount, random.nextFloat() * MathUtils.PI2, 0, 0);
+			obj2[i] = regularPolygon(vertexCount, random.nextFloat() * MathUtils.PI2, distance * MathUtils.cos(direction), distance * MathUtils.sin(direction));
+		}
+	}
+
+	/**
+	 * Builds pairs of randomly rotated unit cubes, laid out like CubeInstance.getTransformVertices().
+	 * Hit pairs are closer than the inscribed sphere's diameter scaled by overlap, miss pairs are
+	 * further apart than the circumscribed spheres reach.
+	 */
+	static void cubePairs(Random random, float overlap, float hitRatio, Vector3[][] obj1, Vector3[][] obj2)
+	{
+		float circumradius = (float) Math.sqrt(3) / 2;
+		boolean[] hits = shuffledHits(random, obj1.length, hitRatio);
+		Vector3 direction = new Vector3();
+		for (int i = 0; i < obj1.length; ++i)
+		{
+			float distance = hits[i] ? 1 - overlap : 2 * circumradius * 1.05f;
+			randomDirection(random, direction);
+			obj1[i] = cube(random, 0, 0, 0);
+			obj2[i] = cube(random, direction.x * distance, direction.y * distance, direction.z * distance);
+		}
+	}
+
+	private static float[] regularPolygon(int vertexCount, float rotation, float centerX, float centerY)
+	{
+		float[] vertices = new float[vertexCount * 2];
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			float angle = rotation + MathUtils.PI2 * i / vertexCount;
+			vertices[2 * i] = centerX + MathUtils.cos(angle);
+			vertices[2 * i + 1] = centerY + MathUtils.sin(angle);
+		}
+		return vertices;
+	}
+
+	private static Vector3[] cube(Random random, float x, float y, float z)
+	{
+		//same vertex mapping as CubeInstance: front face 0-3, rear face 4-7
+		float h = 0.5f;
+		Vector3[] vertices = { new Vector3(h, h, h), new Vector3(-h, h, h), new Vector3(-h, -h, h), new Vector3(h, -h, h),
+				new Vector3(h, h, -h), new Vector3(-h, h, -h), new Vector3(-h, -h, -h), new Vector3(h, -h, -h) };
+
+		Vector3 axis = randomDirection(random, new Vector3());
+		Quaternion rotation = new Quaternion(axis, random.nextFloat() * 360);
+		Matrix4 transform = new Matrix4().set(x, y, z, rotation.x, rotation.y, rotation.z, rotation.w);
+		for (Vector3 vertex : vertices)
+		{
+			vertex.mul(transform);
+		}
+		return vertices;
+	}
+
+	/**
+	 * A uniformly distributed unit vector from the seeded random, so runs are repeatable.
+	 */
+	private static Vector3 randomDirection(Random random, Vector3 out)
+	{
+		float z = random.nextFloat() * 2 - 1;
+		float angle = random.nextFloat() * MathUtils.PI2;
+		float radius = (float) Math.sqrt(1 - z * z);
+		return out.set(radius * MathUtils.cos(angle), radius * MathUtils.sin(angle), z);
+	}
+
+	private static boolean[] shuffledHits(Random random, int count, float hitRatio)
+	{
+		boolean[] hits = new boolean[count];
+		int hitCount = Math.round(hitRatio * count);
+		for (int i = 0; i < hitCount; ++i)
+		{
+			hits[i] = true;
+		}
+		for (int i = count - 1; i > 0; --i)
+		{
+			int j = random.nextInt(i + 1);
+			boolean swap = hits[i];
+			hits[i] = hits[j];
+			hits[j] = swap;
+		}
+		return hits;
+	}
+}
@@ -0,0 +1,112 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Helpers for axis aligned bounding boxes stored in float arrays as
+ * {minX, minY, minZ, maxX, maxY, maxZ}. Using plain arrays lets the broadphases keep every box in
+ * one flat array.
+ *
+ * @author Matt Stone
+ */
+public class Aabb
+{
+	public static final int MIN_X = 0, MIN_Y = 1, MIN_Z = 2, MAX_X = 3, MAX_Y = 4, MAX_Z = 5;
+
+	/** number of floats used by one box */
+	public static final int SIZE = 6;
+
+	/**
+	 * Bounds of 2D vertices; the z bounds are 0.
+	 *
+	 * @param vertices x,y pairs, e.g. from Polygon.getTransformedVertices()
+	 * @param out receives the bounds.
+	 * @return out
+	 */
+	public static float[] fromVertices2D(float[] vertices, float[] out)
+	{
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < vertices.length; i += 2)
+		{
+			minX = Math.min(minX, vertices[i]);
+			maxX = Math.max(maxX, vertices[i]);
+			minY = Math.min(minY, vertices[i + 1]);
+			maxY = Math.max(maxY, vertices[i + 1]);
+		}
+		return set(out, minX, minY, 0, maxX, maxY, 0);
+	}
+
+	/**
+	 * Bounds of 3D vertices.
+	 *
+	 * @param vertices e.g. from CubeInstance.getTransformVertices()
+	 * @param out receives the bounds.
+	 * @return out
+	 */
+	public static float[] fromVertices3D(Vector3[] vertices, float[] out)
+	{
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < vertices.length; ++i)
+		{
+			Vector3 vertex = vertices[i];
+			minX = Math.min(minX, vertex.x);
+			maxX = Math.max(maxX, vertex.x);
+			minY = Math.min(minY, vertex.y);
+			maxY = Math.max(maxY, vertex.y);
+			minZ = Math.min(minZ, vertex.z);
+			maxZ = Math.max(maxZ, vertex.z);
+		}
+		return set(out, minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	/**
+	 * Bounds of 3D vertices given as x,y,z triples, e.g. from CubeInstance.getCorners().
+	 *
+	 * @param out receives the bounds.
+	 * @return out
+	 */
+	public static float[] fromVertices3D(float[] vertices, float[] out)
+	{
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < vertices.length; i += 3)
+		{
+			minX = Math.min(minX, vertices[i]);
+			maxX = Math.max(maxX, vertices[i]);
+			minY = Math.min(minY, vertices[i + 1]);
+			maxY = Math.max(maxY, vertices[i + 1]);
+			minZ = Math.min(minZ, vertices[i + 2]);
+			maxZ = Math.max(maxZ, vertices[i + 2]);
+		}
+		return set(out, minX, minY, minZ, maxX, maxY, maxZ);
+	}
+
+	public static float[] set(float[] out, float minX, float minY, float minZ, float maxX, float maxY, float maxZ)
+	{
+		out[MIN_X] = minX;
+		out[MIN_Y] = minY;
+		out[MIN_Z] = minZ;
+		out[MAX_X] = maxX;
+		out[MAX_Y] = maxY;
+		out[MAX_Z] = maxZ;
+		return out;
+	}
+
+	/**
+	 * Whether two boxes overlap. Boxes that only touch are overlapping, the same as SAT's projection
+	 * test.
+	 *
+	 * @param a array holding the first box
+	 * @param aOffset index of the first box's MIN_X
+	 * @param b array holding the second box
+	 * @param bOffset index of the second box's MIN_X
+	 */
+	public static boolean overlaps(float[] a, int aOffset, float[] b, int bOffset)
+	{
+		return a[aOffset + MIN_X] <= b[bOffset + MAX_X] && b[bOffset + MIN_X] <= a[aOffset + MAX_X]
+				&& a[aOffset + MIN_Y] <= b[bOffset + MAX_Y] && b[bOffset + MIN_Y] <= a[aOffset + MAX_Y]
+				&& a[aOffset + MIN_Z] <= b[bOffset + MAX_Z] && b[bOffset + MIN_Z] <= a[aOffset + MAX_Z];
+	}
+}
@@ -12,7 +12,6 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Polygon;
-import com.badlogic.gdx.math.Vector2;
 
 public class Application2D extends ApplicationAdapter
 {
@@ -28,7 +27,8 @@ public class Application2D extends ApplicationAdapter
 	private boolean collisionSATDetected;
 	private SAT.RenderInformation2D renderInfo;
 	private boolean useMTV = false;
-	private Vector2 mtv = new Vector2();
+	private CollisionDetector<float[]> detector;
+	private CollisionResult result = new CollisionResult();
 
 	@Override
 	public void create()
@@ -68,6 +68,7 @@ public class Application2D extends ApplicationAdapter
 		square.setPosition(0, 0);
 		
 		renderInfo = new SAT.RenderInformation2D(shapeRenderer);
+		detector = new CollisionDetectors.DebugPolygon2D(renderInfo);
 	}
 
 	@Override
@@ -84,6 +85,9 @@ public class Application2D extends ApplicationAdapter
 		shapeRenderer.setAutoShapeType(false);
 		shapeRenderer.begin(ShapeType.Line);
 		
+		// everything the SAT debug path recorded this frame, in this one batch
+		renderInfo.debugDraw.flush(shapeRenderer);
+		
 		shapeRenderer.setColor(renderInfo.obj1Color);
 		shapeRenderer.polygon(square.getTransformedVertices());
 		
@@ -132,14 +136,14 @@ public class Application2D extends ApplicationAdapter
 		
 		if(!useMTV)
 		{
-			collisionSATDetected = SAT.PolygonCollide_2D_v1(renderInfo, square.getTransformedVertices(), triangle.getTransformedVertices());
+			collisionSATDetected = detector.overlaps(square.getTransformedVertices(), triangle.getTransformedVertices());
 		}
 		else
 		{
-			collisionSATDetected = SAT.PolygonCollide_2D_mtv(renderInfo, square.getTransformedVertices(), triangle.getTransformedVertices(), mtv);
+			collisionSATDetected = detector.collide(square.getTransformedVertices(), triangle.getTransformedVertices(), result);
 			if(collisionSATDetected)
 			{
-				square.translate(mtv.x, mtv.y);
+				square.translate(result.mtv.x, result.mtv.y);
 			}
 		}
 	}
@@ -231,6 +235,10 @@ public class Application2D extends ApplicationAdapter
 		{
 			useMTV = !useMTV;
 		}
+		if (Gdx.input.isKeyJustPressed(Input.Keys.G))
+		{
+			renderInfo.debugDraw.enabled = !renderInfo.debugDraw.enabled;
+		}
 	}
 
 	@Override
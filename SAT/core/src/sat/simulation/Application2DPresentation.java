@@ -12,7 +12,6 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Polygon;
-import com.badlogic.gdx.math.Vector2;
 
 public class Application2DPresentation extends ApplicationAdapter
 {
@@ -27,7 +26,8 @@ public class Application2DPresentation extends ApplicationAdapter
 	private boolean collisionLibraryDetected;
 	private boolean collisionSATDetected;
 	private boolean useMTV = false;
-	private Vector2 mtv = new Vector2();
+	private CollisionDetector<float[]> detector;
+	private CollisionResult result = new CollisionResult();
 	private SAT2dPresentation.RenderInformation2D renderInfo; 
 
 	@Override
@@ -68,6 +68,7 @@ public class Application2DPresentation extends ApplicationAdapter
 		square.setPosition(0, 0);
 		
 		renderInfo = new SAT2dPresentation.RenderInformation2D(shapeRenderer);
+		detector = new CollisionDetectors.PresentationPolygon2D(renderInfo);
 	}
 
 	@Override
@@ -84,6 +85,9 @@ public class Application2DPresentation extends ApplicationAdapter
 		shapeRenderer.setAutoShapeType(false);
 		shapeRenderer.begin(ShapeType.Line);
 		
+		// everything the SAT debug path recorded this frame, in this one batch
+		renderInfo.debugDraw.flush(shapeRenderer);
+		
 		shapeRenderer.setColor(renderInfo.obj1Color);
 		shapeRenderer.polygon(square.getTransformedVertices());
 		
@@ -132,14 +136,14 @@ public class Application2DPresentation extends ApplicationAdapter
 		
 		if(!useMTV)
 		{
-			collisionSATDetected = SAT2dPresentation.PolygonCollide_2D_v1(renderInfo, square.getTransformedVertices(), triangle.getTransformedVertices());
+			collisionSATDetected = detector.overlaps(square.getTransformedVertices(), triangle.getTransformedVertices());
 		}
 		else
 		{
-			collisionSATDetected = SAT2dPresentation.PolygonCollide_2D_mtv(renderInfo, square.getTransformedVertices(), triangle.getTransformedVertices(), mtv);
+			collisionSATDetected = detector.collide(square.getTransformedVertices(), triangle.getTransformedVertices(), result);
 			if(collisionSATDetected)
 			{
-				square.translate(mtv.x, mtv.y);
+				square.translate(result.mtv.x, result.mtv.y);
 			}
 		}
 	}
@@ -231,6 +235,10 @@ public class Application2DPresentation extends ApplicationAdapter
 		{
 			useMTV = !useMTV;
 		}
+		if (Gdx.input.isKeyJustPressed(Input.Keys.G))
+		{
+			renderInfo.debugDraw.enabled = !renderInfo.debugDraw.enabled;
+		}
 		if(Gdx.input.isKeyJustPressed(Input.Keys.PLUS) || Gdx.input.isKeyJustPressed(Input.Keys.NUM_0))
 		{
 			renderInfo.changeStage(1);
@@ -1,5 +1,7 @@
 package sat.simulation;
 
+import java.util.ArrayList;
+
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
@@ -35,7 +37,8 @@ public class Application3D extends ApplicationAdapter implements InputProcessor
 	private boolean collisionSATDetected;
 
 	private boolean useMTV = false;
-	private Vector3 mtv = new Vector3();
+	private CollisionWorld3D<CubeInstance> world = CollisionWorld3D.cubes();
+	private ArrayList<CubeInstance> cubes = new ArrayList<CubeInstance>();
 	private CubeInstance cubeBlue;
 	private CubeInstance cubeGreen;
 
@@ -72,6 +75,21 @@ public class Application3D extends ApplicationAdapter implements InputProcessor
 		cubeBlue = cubeBlueArchtype.getInstance();
 		cubeBlue.model().transform.setTranslation(10f, 0f, 0f);
 
+		// the green cube is pushed out of everything it hits. The blue cube is only moved by its
+		// keys, and the white cubes are shoved around by the others.
+		world.add(cubeGreen, false);
+		world.add(cubeBlue, true);
+		cubes.add(cubeGreen);
+		cubes.add(cubeBlue);
+		WrappedCubeModel cubeWhiteArchtype = new WrappedCubeModel(cubeWidth, cubeHeight, cubeDepth, Color.WHITE);
+		for (int i = 0; i < 3; ++i)
+		{
+			CubeInstance cube = cubeWhiteArchtype.getInstance();
+			cube.model().transform.setTranslation(-5f + 5f * i, 0f, -10f);
+			world.add(cube, false);
+			cubes.add(cube);
+		}
+
 		bmFont = new BitmapFont();
 		bmFont.setColor(Color.WHITE);
 		spriteBatch = new SpriteBatch();
@@ -99,8 +117,10 @@ public class Application3D extends ApplicationAdapter implements InputProcessor
 
 		modelBatch.begin(camera);
 		// modelBatch.render(cube, environment);
-		cubeGreen.render(modelBatch, environment);
-		cubeBlue.render(modelBatch, environment);
+		for (CubeInstance cube : cubes)
+		{
+			cube.render(modelBatch, environment);
+		}
 		modelBatch.end();
 
 		renderText();
@@ -138,11 +158,8 @@ public class Application3D extends ApplicationAdapter implements InputProcessor
 		// check collision via library methods (not sure if there is a library method for 3d
 		// collisionLibraryDetected = Intersector.overlapConvexPolygons(square, triangle);
 
-		collisionSATDetected = SAT3D.CubeCollide_3D_mtv(cubeGreen.getTransformVertices(), cubeBlue.getTransformVertices(), mtv);
-		if (useMTV && collisionSATDetected)
-		{
-			cubeGreen.model().transform.translate(mtv);
-		}
+		world.resolveCollisions = useMTV;
+		collisionSATDetected = world.tick() > 0;
 	}
 
 	//private static Vector3 rotatePnt = new Vector3(0f, 0f, 0f);
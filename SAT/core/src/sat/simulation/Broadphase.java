@@ -0,0 +1,39 @@
+package sat.simulation;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Finds the pairs of objects whose bounding boxes overlap, so that the (much more expensive) SAT
+ * tests only run on pairs that might collide.
+ *
+ * Objects are tracked as proxies, each an axis aligned bounding box laid out as
+ * {minX, minY, minZ, maxX, maxY, maxZ} (see {@link Aabb}). 2D shapes use 0 for both z values.
+ * Proxy ids are stable for the life of the proxy and may be reused after it is destroyed.
+ *
+ * @author Matt Stone
+ */
+public interface Broadphase
+{
+	/**
+	 * @param aabb bounds of the new proxy; copied.
+	 * @return the id of the new proxy.
+	 */
+	int createProxy(float[] aabb);
+
+	/**
+	 * @param proxy
+	 * @param aabb the new bounds of the proxy; copied.
+	 */
+	void moveProxy(int proxy, float[] aabb);
+
+	void destroyProxy(int proxy);
+
+	/**
+	 * Finds every pair of proxies whose bounds overlap.
+	 *
+	 * @param pairs cleared, then filled with proxy ids, two per pair: {a0, b0, a1, b1, ...}. Each pair
+	 *            appears once.
+	 * @return the number of pairs.
+	 */
+	int computePairs(IntArray pairs);
+}
@@ -0,0 +1,33 @@
+package sat.simulation;
+
+/**
+ * A narrowphase collision test for a pair of shapes of type T, e.g. float[] vertices,
+ * ConvexPolygon2D, CubeInstance or ConvexPolyhedron.
+ *
+ * SAT, SAT2dPresentation, SAT3D and GJK3D each have their own static entry points, so a caller of
+ * one of them is tied to that engine. A caller of this interface can be handed any engine, e.g. to
+ * benchmark them against each other. Implementations for the engines in this package are in
+ * {@link CollisionDetectors}.
+ *
+ * Implementations own their scratch space, so a detector must only be used from one thread at a
+ * time; give each thread its own.
+ *
+ * @author Matt Stone
+ */
+public interface CollisionDetector<T>
+{
+	/**
+	 * Boolean test; engines that can stop at the first separating axis do so.
+	 *
+	 * @return true if the shapes overlap.
+	 */
+	boolean overlaps(T obj1, T obj2);
+
+	/**
+	 * Full test with the normal, depth and minimum translation vector.
+	 *
+	 * @param result receives the result; cleared if there is no collision.
+	 * @return result.hit
+	 */
+	boolean collide(T obj1, T obj2, CollisionResult result);
+}
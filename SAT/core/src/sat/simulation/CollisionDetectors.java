@@ -0,0 +1,227 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+
+import sat.simulation.WrappedCubeModel.CubeInstance;
+
+/**
+ * CollisionDetector implementations for the engines in this package. Each wraps the engine's
+ * static entry points with a scratch context of its own, so every instance must stay on one
+ * thread; the contexts are public so their SatMetrics.CallStats and separating axes can be read.
+ *
+ * @author Matt Stone
+ */
+public class CollisionDetectors
+{
+	/**
+	 * Fills the result from a 2D MTV. The debug entry points leave the MTV buffer holding the
+	 * shortest projection vector even on a miss, so the hit flag decides.
+	 *
+	 * @param mtvAxisLen2 squared length of the axis the MTV lies along, which scales the engine's
+	 *            constant offset.
+	 */
+	private static boolean set2D(boolean collision, Vector2 mtv, float mtvAxisLen2, CollisionResult result)
+	{
+		if (collision)
+		{
+			result.set(mtv.x, mtv.y, 0, SAT.constantOffset * (float) Math.sqrt(mtvAxisLen2));
+		}
+		else
+		{
+			result.clear();
+		}
+		return collision;
+	}
+
+	private static boolean set3D(boolean collision, Vector3 mtv, float mtvAxisLen2, CollisionResult result)
+	{
+		if (collision)
+		{
+			result.set(mtv.x, mtv.y, mtv.z, SAT3D.constantOffset * (float) Math.sqrt(mtvAxisLen2));
+		}
+		else
+		{
+			result.clear();
+		}
+		return collision;
+	}
+
+	/* ------------------------------- 2D ----------------------------- */
+
+	/**
+	 * Headless SAT on polygons given as x,y pairs of world vertices, e.g.
+	 * Polygon.getTransformedVertices().
+	 */
+	public static class Polygon2D implements CollisionDetector<float[]>
+	{
+		public final SatContext2D context = new SatContext2D();
+		private final Vector2 mtv = new Vector2();
+
+		@Override
+		public boolean overlaps(float[] obj1, float[] obj2)
+		{
+			return SAT.PolygonCollide_2D(context, obj1, obj2);
+		}
+
+		@Override
+		public boolean collide(float[] obj1, float[] obj2, CollisionResult result)
+		{
+			return set2D(SAT.PolygonCollide_2D_mtv(context, obj1, obj2, mtv), mtv, context.mtvAxisLen2, result);
+		}
+	}
+
+	/**
+	 * SAT's debug path: the same polygons as Polygon2D, but every axis, projection and MTV is
+	 * recorded into the render information's DebugDrawBuffer and no test stops early.
+	 */
+	public static class DebugPolygon2D implements CollisionDetector<float[]>
+	{
+		public final SatContext2D context = new SatContext2D();
+		public final SAT.RenderInformation2D renderInfo;
+		private final Vector2 mtv = new Vector2();
+
+		public DebugPolygon2D(SAT.RenderInformation2D renderInfo)
+		{
+			this.renderInfo = renderInfo;
+		}
+
+		@Override
+		public boolean overlaps(float[] obj1, float[] obj2)
+		{
+			return SAT.PolygonCollide_2D_v1(context, renderInfo, obj1, obj2);
+		}
+
+		@Override
+		public boolean collide(float[] obj1, float[] obj2, CollisionResult result)
+		{
+			return set2D(SAT.PolygonCollide_2D_mtv(context, renderInfo, obj1, obj2, mtv), mtv, context.mtvAxisLen2, result);
+		}
+	}
+
+	/**
+	 * SAT2dPresentation, which records its steps for the presentation. It keeps its own scratch
+	 * space for the render thread, so there is no context here.
+	 */
+	public static class PresentationPolygon2D implements CollisionDetector<float[]>
+	{
+		public final SAT2dPresentation.RenderInformation2D renderInfo;
+		private final Vector2 mtv = new Vector2();
+
+		public PresentationPolygon2D(SAT2dPresentation.RenderInformation2D renderInfo)
+		{
+			this.renderInfo = renderInfo;
+		}
+
+		@Override
+		public boolean overlaps(float[] obj1, float[] obj2)
+		{
+			return SAT2dPresentation.PolygonCollide_2D_v1(renderInfo, obj1, obj2);
+		}
+
+		@Override
+		public boolean collide(float[] obj1, float[] obj2, CollisionResult result)
+		{
+			return set2D(SAT2dPresentation.PolygonCollide_2D_mtv(renderInfo, obj1, obj2, mtv), mtv, SAT2dPresentation.mtvAxisLen2(), result);
+		}
+	}
+
+	/**
+	 * Headless SAT on ConvexPolygon2D, using the polygons' cached axes.
+	 */
+	public static class Convex2D implements CollisionDetector<ConvexPolygon2D>
+	{
+		public final SatContext2D context = new SatContext2D();
+		private final Vector2 mtv = new Vector2();
+
+		@Override
+		public boolean overlaps(ConvexPolygon2D obj1, ConvexPolygon2D obj2)
+		{
+			return SAT.PolygonCollide_2D(context, obj1, obj2);
+		}
+
+		@Override
+		public boolean collide(ConvexPolygon2D obj1, ConvexPolygon2D obj2, CollisionResult result)
+		{
+			return set2D(SAT.PolygonCollide_2D_mtv(context, obj1, obj2, mtv), mtv, context.mtvAxisLen2, result);
+		}
+	}
+
+	/* ------------------------------- 3D ----------------------------- */
+
+	/**
+	 * SAT3D's generic cube path, which derives its axes from the cubes' packed world vertices.
+	 */
+	public static class Cube3D implements CollisionDetector<CubeInstance>
+	{
+		public final SatContext3D context = new SatContext3D();
+		private final Vector3 mtv = new Vector3();
+
+		@Override
+		public boolean overlaps(CubeInstance obj1, CubeInstance obj2)
+		{
+			return SAT3D.CubeCollide_3D_mtv(context, obj1.getCorners(), obj2.getCorners(), mtv);
+		}
+
+		@Override
+		public boolean collide(CubeInstance obj1, CubeInstance obj2, CollisionResult result)
+		{
+			return set3D(SAT3D.CubeCollide_3D_mtv(context, obj1.getCorners(), obj2.getCorners(), mtv), mtv, context.mtvAxisLen2, result);
+		}
+	}
+
+	/**
+	 * SAT3D's oriented box path, which works from the boxes the cubes cache from their transforms.
+	 */
+	public static class Box3D implements CollisionDetector<CubeInstance>
+	{
+		public final SatContext3D context = new SatContext3D();
+		private final Vector3 mtv = new Vector3();
+
+		@Override
+		public boolean overlaps(CubeInstance obj1, CubeInstance obj2)
+		{
+			return SAT3D.BoxCollide_3D_mtv(context, obj1, obj2, mtv);
+		}
+
+		@Override
+		public boolean collide(CubeInstance obj1, CubeInstance obj2, CollisionResult result)
+		{
+			// unit axes
+			return set3D(SAT3D.BoxCollide_3D_mtv(context, obj1, obj2, mtv), mtv, 1, result);
+		}
+	}
+
+	/**
+	 * SAT3D or GJK3D on polyhedra, chosen per pair by Narrowphase3D.
+	 */
+	public static class Polyhedron3D implements CollisionDetector<ConvexPolyhedron>
+	{
+		public final SatContext3D context = new SatContext3D();
+		/** Narrowphase3D.SAT, GJK or AUTO */
+		public int mode;
+		private final Vector3 mtv = new Vector3();
+
+		public Polyhedron3D(int mode)
+		{
+			this.mode = mode;
+		}
+
+		@Override
+		public boolean overlaps(ConvexPolyhedron obj1, ConvexPolyhedron obj2)
+		{
+			if (Narrowphase3D.engineFor(obj1, obj2, mode) == Narrowphase3D.GJK)
+			{
+				return GJK3D.Collide_3D(context, obj1, obj2);
+			}
+			return SAT3D.PolyhedronCollide_3D_mtv(context, obj1, obj2, mtv);
+		}
+
+		@Override
+		public boolean collide(ConvexPolyhedron obj1, ConvexPolyhedron obj2, CollisionResult result)
+		{
+			// unit axes for SAT3D and GJK3D alike
+		return set3D(Narrowphase3D.Collide_3D_mtv(context, obj1, obj2, mode, mtv), mtv, 1, result);
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * What a CollisionDetector found for a pair of shapes, in the same form for every engine and for
+ * both 2D and 3D shapes. 2D detectors leave z at zero.
+ *
+ * Fill one with {@link CollisionDetector#collide(Object, Object, CollisionResult)} and reuse it
+ * between calls; nothing is allocated after construction.
+ *
+ * @author Matt Stone
+ */
+public class CollisionResult
+{
+	/** true if the shapes overlap */
+	public boolean hit;
+
+	/** unit length, points from obj1 towards obj2; zero if the shapes do not collide */
+	public final Vector3 normal = new Vector3();
+
+	/** how far the shapes overlap along the normal; 0 if they do not collide */
+	public float depth;
+
+	/**
+	 * the vector that moves obj1 out of obj2, including the engine's small constant offset; zero if
+	 * the shapes do not collide
+	 */
+	public final Vector3 mtv = new Vector3();
+
+	public void clear()
+	{
+		hit = false;
+		normal.set(0, 0, 0);
+		depth = 0;
+		mtv.set(0, 0, 0);
+	}
+
+	/**
+	 * Fills in the result from an MTV that moves obj1 out of obj2; a zero MTV means no collision.
+	 *
+	 * @param nudge the length the engine's constant offset added to the MTV, taken back off the
+	 *            depth. Engines that project onto axes which are not unit length scale their
+	 *            offset by the length of the axis the MTV lies along.
+	 */
+	void set(float mtvX, float mtvY, float mtvZ, float nudge)
+	{
+		mtv.set(mtvX, mtvY, mtvZ);
+		float length = mtv.len();
+		if (length == 0)
+		{
+			hit = false;
+			normal.set(0, 0, 0);
+			depth = 0;
+			return;
+		}
+
+		// the MTV pushes obj1 away from obj2, so obj2 lies the other way
+		hit = true;
+		normal.set(-mtvX / length, -mtvY / length, -mtvZ / length);
+		depth = Math.max(length - nudge, 0);
+	}
+}
@@ -0,0 +1,359 @@
+package sat.simulation;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import sat.simulation.WrappedCubeModel.CubeInstance;
+
+/**
+ * Any number of 3D shapes, collided against each other once per {@link #tick()}.
+ *
+ * Each tick:
+ * 1) shapes whose version changed since the last tick have their bounds moved in the broadphase;
+ * shapes that did not move only cost the version check.
+ * 2) the broadphase finds the pairs whose bounds overlap.
+ * 3) the detector runs on each pair, and each colliding pair is pushed apart along its MTV: half
+ * each if both shapes can move, all of it onto the one that can if the other is static. Pairs of
+ * static shapes are never tested.
+ *
+ * Moving a shape apart only changes its transform, so the broadphase sees the move next tick, the
+ * same way a shape moved by the game would be seen. There is no velocity or mass here; this is the
+ * collision half of a simulation and can be driven from a render loop or a headless server alike.
+ *
+ * Shapes are added with {@link #add(Object, boolean)}, which returns a handle. A handle stays valid
+ * until the shape is removed, and may then be reused for a later shape. The world is generic in the
+ * shape type: {@link #cubes()} collides CubeInstances with SAT3D's box path, {@link #polyhedra(int)}
+ * collides ConvexPolyhedra with Narrowphase3D. Not thread safe.
+ *
+ * @author Matt Stone
+ */
+public class CollisionWorld3D<T>
+{
+	/**
+	 * What the world needs to know about a shape type besides how to collide it.
+	 */
+	public interface ShapeAdapter<T>
+	{
+		/**
+		 * @return a number that changes whenever the shape moves.
+		 */
+		int version(T shape);
+
+		/**
+		 * @param out receives the shape's world bounds, laid out as in Aabb.
+		 * @return out
+		 */
+		float[] bounds(T shape, float[] out);
+
+		void translate(T shape, float x, float y, float z);
+	}
+
+	public static final ShapeAdapter<CubeInstance> CUBE_ADAPTER = new ShapeAdapter<CubeInstance>()
+	{
+		@Override
+		public int version(CubeInstance shape)
+		{
+			return shape.getVersion();
+		}
+
+		@Override
+		public float[] bounds(CubeInstance shape, float[] out)
+		{
+			System.arraycopy(shape.getAabb(), 0, out, 0, Aabb.SIZE);
+			return out;
+		}
+
+		@Override
+		public void translate(CubeInstance shape, float x, float y, float z)
+		{
+			shape.model().transform.trn(x, y, z);
+		}
+	};
+
+	public static final ShapeAdapter<ConvexPolyhedron> POLYHEDRON_ADAPTER = new ShapeAdapter<ConvexPolyhedron>()
+	{
+		@Override
+		public int version(ConvexPolyhedron shape)
+		{
+			return shape.getVersion();
+		}
+
+		@Override
+		public float[] bounds(ConvexPolyhedron shape, float[] out)
+		{
+			return Aabb.fromVertices3D(shape.getWorldVertices(), out);
+		}
+
+		@Override
+		public void translate(ConvexPolyhedron shape, float x, float y, float z)
+		{
+			shape.getTransform().trn(x, y, z);
+			shape.dirty();
+		}
+	};
+
+	private static final int NONE = -1;
+
+	/** if false, tick only finds the contacts and leaves the shapes where they are */
+	public boolean resolveCollisions = true;
+
+	private final Broadphase broadphase;
+	private final CollisionDetector<T> detector;
+	private final ShapeAdapter<T> adapter;
+
+	// per handle; a free handle has a null shape and its proxy slot links to the next free handle
+	private final ArrayList<T> shapes = new ArrayList<T>();
+	private final IntArray proxies = new IntArray();
+	private final IntArray versions = new IntArray();
+	private final BooleanArray statics = new BooleanArray();
+	private int freeList = NONE;
+	private int shapeCount = 0;
+
+	// handle of each broadphase proxy id; proxy ids are not always dense, e.g. the tree uses node ids
+	private final IntArray proxyHandles = new IntArray();
+
+	// contacts found by the last tick: two handles and an MTV (moving the first out of the second)
+	// per contact
+	private final IntArray contactHandles = new IntArray();
+	private final FloatArray contactMtvs = new FloatArray();
+
+	private final IntArray pairs = new IntArray();
+	private int pairCount = 0;
+	private final float[] aabb = new float[Aabb.SIZE];
+	private final CollisionResult result = new CollisionResult();
+
+	/**
+	 * @param broadphase empty; owned by the world from now on.
+	 * @param detector the narrowphase; owned by the world from now on.
+	 */
+	public CollisionWorld3D(Broadphase broadphase, CollisionDetector<T> detector, ShapeAdapter<T> adapter)
+	{
+		this.broadphase = broadphase;
+		this.detector = detector;
+		this.adapter = adapter;
+	}
+
+	/**
+	 * A world of CubeInstances in a DynamicAabbTree, collided with SAT3D's oriented box path.
+	 */
+	public static CollisionWorld3D<CubeInstance> cubes()
+	{
+		return new CollisionWorld3D<CubeInstance>(new DynamicAabbTree(), new CollisionDetectors.Box3D(), CUBE_ADAPTER);
+	}
+
+	/**
+	 * A world of ConvexPolyhedra in a DynamicAabbTree, collided with Narrowphase3D.
+	 *
+	 * @param mode Narrowphase3D.SAT, GJK or AUTO.
+	 */
+	public static CollisionWorld3D<ConvexPolyhedron> polyhedra(int mode)
+	{
+		return new CollisionWorld3D<ConvexPolyhedron>(new DynamicAabbTree(), new CollisionDetectors.Polyhedron3D(mode), POLYHEDRON_ADAPTER);
+	}
+
+	/* ------------------------------- SHAPES ----------------------------- */
+
+	/**
+	 * @param isStatic static shapes are never moved by the world and never tested against each
+	 *            other. They may still be moved by the caller.
+	 * @return the shape's handle.
+	 */
+	public int add(T shape, boolean isStatic)
+	{
+		if (shape == null)
+		{
+			throw new IllegalArgumentException("shape must not be null");
+		}
+
+		int handle;
+		if (freeList != NONE)
+		{
+			handle = freeList;
+			freeList = proxies.get(handle);
+			shapes.set(handle, shape);
+			statics.set(handle, isStatic);
+		}
+		else
+		{
+			handle = shapes.size();
+			shapes.add(shape);
+			proxies.add(NONE);
+			versions.add(0);
+			statics.add(isStatic);
+		}
+
+		int proxy = broadphase.createProxy(adapter.bounds(shape, aabb));
+		proxies.set(handle, proxy);
+		versions.set(handle, adapter.version(shape));
+		while (proxyHandles.size <= proxy)
+		{
+			proxyHandles.add(NONE);
+		}
+		proxyHandles.set(proxy, handle);
+		++shapeCount;
+		return handle;
+	}
+
+	/**
+	 * Removes the shape; its handle may be given to a shape added later.
+	 */
+	public void remove(int handle)
+	{
+		checkHandle(handle);
+		int proxy = proxies.get(handle);
+		broadphase.destroyProxy(proxy);
+		proxyHandles.set(proxy, NONE);
+
+		shapes.set(handle, null);
+		proxies.set(handle, freeList);
+		freeList = handle;
+		--shapeCount;
+	}
+
+	public T get(int handle)
+	{
+		checkHandle(handle);
+		return shapes.get(handle);
+	}
+
+	public boolean isStatic(int handle)
+	{
+		checkHandle(handle);
+		return statics.get(handle);
+	}
+
+	public void setStatic(int handle, boolean isStatic)
+	{
+		checkHandle(handle);
+		statics.set(handle, isStatic);
+	}
+
+	/**
+	 * @return the number of shapes in the world.
+	 */
+	public int size()
+	{
+		return shapeCount;
+	}
+
+	private void checkHandle(int handle)
+	{
+		if (handle < 0 || handle >= shapes.size() || shapes.get(handle) == null)
+		{
+			throw new IllegalArgumentException("no such shape: " + handle);
+		}
+	}
+
+	/* ------------------------------- TICK ----------------------------- */
+
+	/**
+	 * Updates the broadphase, tests every candidate pair and, if resolveCollisions is set, pushes
+	 * colliding shapes apart.
+	 *
+	 * @return the number of colliding pairs; see getContactHandle1/2 and getContactMtv.
+	 */
+	public int tick()
+	{
+		// only shapes that moved since the last tick touch the broadphase
+		for (int handle = 0; handle < shapes.size(); ++handle)
+		{
+			T shape = shapes.get(handle);
+			if (shape == null)
+			{
+				continue;
+			}
+			int version = adapter.version(shape);
+			if (version != versions.get(handle))
+			{
+				versions.set(handle, version);
+				broadphase.moveProxy(proxies.get(handle), adapter.bounds(shape, aabb));
+			}
+		}
+
+		contactHandles.clear();
+		contactMtvs.clear();
+		pairCount = broadphase.computePairs(pairs);
+		for (int p = 0; p < pairCount; ++p)
+		{
+			int handle1 = proxyHandles.get(pairs.get(2 * p));
+			int handle2 = proxyHandles.get(pairs.get(2 * p + 1));
+			boolean static1 = statics.get(handle1);
+			boolean static2 = statics.get(handle2);
+			if (static1 && static2)
+			{
+				continue;
+			}
+
+			T obj1 = shapes.get(handle1);
+			T obj2 = shapes.get(handle2);
+			if (!detector.collide(obj1, obj2, result))
+			{
+				continue;
+			}
+
+			Vector3 mtv = result.mtv;
+			contactHandles.add(handle1);
+			contactHandles.add(handle2);
+			contactMtvs.add(mtv.x);
+			contactMtvs.add(mtv.y);
+			contactMtvs.add(mtv.z);
+
+			if (resolveCollisions)
+			{
+				// the MTV moves obj1 out of obj2; split it between the shapes that may move. obj2 takes
+				// the rest of it, in the opposite direction.
+				float share1 = static1 ? 0 : static2 ? 1 : 0.5f;
+				float share2 = share1 - 1;
+				if (share1 != 0)
+				{
+					adapter.translate(obj1, mtv.x * share1, mtv.y * share1, mtv.z * share1);
+				}
+				if (share2 != 0)
+				{
+					adapter.translate(obj2, mtv.x * share2, mtv.y * share2, mtv.z * share2);
+				}
+			}
+		}
+		return getContactCount();
+	}
+
+	/**
+	 * @return the number of candidate pairs the broadphase gave the last tick, tested or not.
+	 */
+	public int getPairCount()
+	{
+		return pairCount;
+	}
+
+	/**
+	 * @return the number of colliding pairs found by the last tick.
+	 */
+	public int getContactCount()
+	{
+		return contactHandles.size / 2;
+	}
+
+	public int getContactHandle1(int contact)
+	{
+		return contactHandles.get(2 * contact);
+	}
+
+	public int getContactHandle2(int contact)
+	{
+		return contactHandles.get(2 * contact + 1);
+	}
+
+	/**
+	 * @param out receives the vector that moved (or, with resolveCollisions off, would move) the
+	 *            contact's first shape out of its second.
+	 * @return out
+	 */
+	public Vector3 getContactMtv(int contact, Vector3 out)
+	{
+		return out.set(contactMtvs.get(3 * contact), contactMtvs.get(3 * contact + 1), contactMtvs.get(3 * contact + 2));
+	}
+}
@@ -0,0 +1,190 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * The contact between two overlapping convex polygons: a normal, a penetration depth and up to two
+ * contact points.
+ *
+ * An MTV alone only says how to push obj1 out; resolving a resting stack with it takes many
+ * push-out iterations, which jitter. A solver that knows where the polygons touch can apply its
+ * impulses at the contact points and settle the stack in a few iterations.
+ *
+ * The normal is the axis of least penetration that SAT already found while computing the MTV, so
+ * building a manifold costs one SAT call plus a pass over each polygon's edges. The points come
+ * from clipping: the edge of one polygon that faces most directly along the normal is the reference
+ * edge, the most anti-parallel edge of the other polygon is the incident edge, and the incident edge
+ * is clipped to the sides of the reference edge. Points of the clipped incident edge that lie behind
+ * the reference edge are the contacts.
+ *
+ * Fill one with {@link SAT#PolygonCollide_2D_manifold(SatContext2D, ConvexPolygon2D, ConvexPolygon2D, ContactManifold2D)}
+ * and reuse it between calls; nothing is allocated after construction.
+ *
+ * @author Matt Stone
+ */
+public class ContactManifold2D
+{
+	public static final int MAX_POINTS = 2;
+
+	/** unit length, points from obj1 towards obj2 */
+	public final Vector2 normal = new Vector2();
+
+	/** how far the polygons overlap along the normal; 0 if they do not collide */
+	public float depth;
+
+	/** the vector that moves obj1 out of obj2, exactly as PolygonCollide_2D_mtv reports it */
+	public final Vector2 mtv = new Vector2();
+
+	/** number of valid entries in points and pointDepths, 0 if the polygons do not collide */
+	public int pointCount;
+
+	/** world space contact points, on the incident edge */
+	public final Vector2[] points = { new Vector2(), new Vector2() };
+
+	/** how far each contact point lies behind the reference edge */
+	public final float[] pointDepths = new float[MAX_POINTS];
+
+	// scratch for the clipped incident edge, as x,y pairs
+	private final float[] clipped = new float[MAX_POINTS * 2];
+
+	public void clear()
+	{
+		normal.set(0, 0);
+		mtv.set(0, 0);
+		depth = 0;
+		pointCount = 0;
+	}
+
+	/**
+	 * Fills in the normal, depth and contact points from an MTV that moves obj1 out of obj2.
+	 */
+	void build(ConvexPolygon2D obj1, ConvexPolygon2D obj2, Vector2 mtv)
+	{
+		this.mtv.set(mtv);
+		float length = mtv.len();
+		if (length == 0)
+		{
+			pointCount = 0;
+			depth = 0;
+			normal.set(0, 0);
+			return;
+		}
+
+		// the MTV pushes obj1 away from obj2, so obj2 lies the other way
+		normal.set(-mtv.x / length, -mtv.y / length);
+		depth = Math.max(length - SAT.constantOffset, 0);
+
+		// the edges of each polygon that face the other polygon most directly
+		int edge1 = mostAlignedEdge(obj1.getWorldNormals(), obj1.getEdgeCount(), normal.x, normal.y);
+		int edge2 = mostAlignedEdge(obj2.getWorldNormals(), obj2.getEdgeCount(), -normal.x, -normal.y);
+
+		// the edge more perpendicular to the normal is the reference; the other is clipped against it
+		float[] normals1 = obj1.getWorldNormals();
+		float[] normals2 = obj2.getWorldNormals();
+		float alignment1 = SAT.dot2D(normals1[2 * edge1], normals1[2 * edge1 + 1], normal.x, normal.y);
+		float alignment2 = -SAT.dot2D(normals2[2 * edge2], normals2[2 * edge2 + 1], normal.x, normal.y);
+		if (alignment1 >= alignment2)
+		{
+			clip(obj1.getWorldVertices(), normals1, edge1, obj2.getWorldVertices(), edge2);
+		}
+		else
+		{
+			clip(obj2.getWorldVertices(), normals2, edge2, obj1.getWorldVertices(), edge1);
+		}
+	}
+
+	/**
+	 * @return the index of the edge whose normal points furthest along the direction.
+	 */
+	private static int mostAlignedEdge(float[] normals, int edgeCount, float directionX, float directionY)
+	{
+		int best = 0;
+		float bestDot = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < edgeCount; ++i)
+		{
+			float dot = SAT.dot2D(normals[2 * i], normals[2 * i + 1], directionX, directionY);
+			if (dot > bestDot)
+			{
+				bestDot = dot;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Clips the incident edge to the side planes of the reference edge and keeps the points that are
+	 * behind the reference edge.
+	 */
+	private void clip(float[] referenceVertices, float[] referenceNormals, int referenceEdge, float[] incidentVertices, int incidentEdge)
+	{
+		int refStart = 2 * referenceEdge;
+		int refEnd = (refStart + 2) % referenceVertices.length;
+		float ref1X = referenceVertices[refStart], ref1Y = referenceVertices[refStart + 1];
+		float ref2X = referenceVertices[refEnd], ref2Y = referenceVertices[refEnd + 1];
+
+		int incStart = 2 * incidentEdge;
+		int incEnd = (incStart + 2) % incidentVertices.length;
+		clipped[0] = incidentVertices[incStart];
+		clipped[1] = incidentVertices[incStart + 1];
+		clipped[2] = incidentVertices[incEnd];
+		clipped[3] = incidentVertices[incEnd + 1];
+
+		// unit direction along the reference edge
+		float edgeX = ref2X - ref1X;
+		float edgeY = ref2Y - ref1Y;
+		float edgeLength = (float) Math.sqrt(edgeX * edgeX + edgeY * edgeY);
+		edgeX /= edgeLength;
+		edgeY /= edgeLength;
+
+		// keep the part of the incident edge between the reference edge's two end points
+		if (!clipSegment(edgeX, edgeY, SAT.dot2D(edgeX, edgeY, ref1X, ref1Y))
+				|| !clipSegment(-edgeX, -edgeY, -SAT.dot2D(edgeX, edgeY, ref2X, ref2Y)))
+		{
+			// numerically degenerate, e.g. a vertex exactly on a corner; fall back to no points
+			pointCount = 0;
+			return;
+		}
+
+		// keep only the points that are behind the reference edge
+		float faceX = referenceNormals[refStart], faceY = referenceNormals[refStart + 1];
+		float faceOffset = SAT.dot2D(faceX, faceY, ref1X, ref1Y);
+		pointCount = 0;
+		for (int i = 0; i < MAX_POINTS * 2; i += 2)
+		{
+			float separation = SAT.dot2D(faceX, faceY, clipped[i], clipped[i + 1]) - faceOffset;
+			if (separation <= 0)
+			{
+				points[pointCount].set(clipped[i], clipped[i + 1]);
+				pointDepths[pointCount] = -separation;
+				++pointCount;
+			}
+		}
+	}
+
+	/**
+	 * Clips the segment in the clipped buffer to the half plane dot(direction, p) >= offset.
+	 *
+	 * @return false if the whole segment is outside the half plane.
+	 */
+	private boolean clipSegment(float directionX, float directionY, float offset)
+	{
+		float distance1 = SAT.dot2D(directionX, directionY, clipped[0], clipped[1]) - offset;
+		float distance2 = SAT.dot2D(directionX, directionY, clipped[2], clipped[3]) - offset;
+		if (distance1 < 0 && distance2 < 0)
+		{
+			return false;
+		}
+		if (distance1 < 0 || distance2 < 0)
+		{
+			// move the outside end point to where the segment crosses the plane
+			float t = distance1 / (distance1 - distance2);
+			float crossX = clipped[0] + t * (clipped[2] - clipped[0]);
+			float crossY = clipped[1] + t * (clipped[3] - clipped[1]);
+			int outside = distance1 < 0 ? 0 : 2;
+			clipped[outside] = crossX;
+			clipped[outside + 1] = crossY;
+		}
+		return true;
+	}
+}
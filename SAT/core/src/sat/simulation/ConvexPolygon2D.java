@@ -0,0 +1,328 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+
+/**
+ * A convex polygon that can be collided with SAT many times without redoing per-shape setup.
+ *
+ * The raw float[] versions of SAT rebuild segments and normals from the vertices on every call.
+ * The edges of a polygon never change in local space, only the polygon's transform does. So this
+ * class computes the unit length edge normals once, and only rotates them when the polygon's
+ * rotation or scale has changed since they were last asked for. Translation does not affect normals.
+ *
+ * Normals that are parallel to each other (e.g. opposite sides of a rectangle) give the same
+ * projection, so the normals are also reduced once to a set of unique axes for SAT to test.
+ *
+ * The transform itself is stored in a libGDX Polygon, which already caches its transformed
+ * vertices. The polygon's local vertices must not be replaced after construction.
+ *
+ * Large polygons (terrain chunks, circle approximations) are projected by hill climbing. The
+ * vertices of a convex polygon are ordered around its boundary, so their projections onto an axis
+ * rise to a single maximum and fall to a single minimum. Starting at the last extreme vertex and
+ * stepping towards larger (or smaller) projections finds the extreme in a few steps when the axis
+ * is close to the last one, e.g. for consecutive edge normals or the same pair next tick.
+ *
+ * Not thread safe: reading the normals, axes or vertices may rewrite them, and a hill climb updates
+ * where the next one starts. A shape must not be tested from more than one thread at a time. To
+ * share shapes between threads for a parallel phase, call {@link #getWorldAxes()} and
+ * {@link #getWorldVertices()} on each beforehand and do not move them until it is over; shapes of
+ * {@link #hillClimbThreshold} vertices or more must still only be tested by one thread at a time.
+ *
+ * @author Matt Stone
+ */
+public class ConvexPolygon2D
+{
+	/**
+	 * Polygons with at least this many vertices find their extreme vertices on an axis by hill
+	 * climbing instead of scanning every vertex.
+	 */
+	public static int hillClimbThreshold = 16;
+
+	private final Polygon polygon;
+	private final int edgeCount;
+
+	// the vertices that were furthest along and against the last projection axis. Only a starting
+	// point for the next search; a stale value (e.g. left over from another pair) costs extra steps
+	// but never gives a wrong answer.
+	private int minSupport = 0;
+	private int maxSupport = 0;
+
+	// unit length outward normals, stored as x,y pairs. One per edge; edge i runs from vertex i to
+	// vertex i + 1.
+	private final float[] localNormals;
+	private final float[] worldNormals;
+
+	// unique axes, as x,y pairs. Only the first axisCount pairs are used.
+	private final int axisCount;
+	private final float[] localAxes;
+	private final float[] worldAxes;
+
+	// the transform that the world normals were last computed for
+	private boolean normalsDirty = true;
+	private float normalsRotation;
+	private float normalsScaleX;
+	private float normalsScaleY;
+
+	/**
+	 * @param vertices local space vertices as x,y pairs, in either winding order.
+	 */
+	public ConvexPolygon2D(float[] vertices)
+	{
+		this(new Polygon(vertices));
+	}
+
+	/**
+	 * @param polygon a convex polygon, in either winding order. The polygon is not copied; moving it
+	 *            moves this shape.
+	 */
+	public ConvexPolygon2D(Polygon polygon)
+	{
+		float[] vertices = polygon.getVertices();
+		if (vertices.length < 6)
+		{
+			throw new IllegalArgumentException("polygons must have at least 3 vertices");
+		}
+		this.polygon = polygon;
+		this.edgeCount = vertices.length / 2;
+		this.localNormals = new float[vertices.length];
+		this.worldNormals = new float[vertices.length];
+
+		// the winding decides which side of an edge is outside.
+		float windingSign = signedArea(vertices) >= 0 ? 1 : -1;
+		for (int i = 0; i < vertices.length; i += 2)
+		{
+			int next = (i + 2) % vertices.length;
+			float edgeX = vertices[next] - vertices[i];
+			float edgeY = vertices[next + 1] - vertices[i + 1];
+
+			// rotate the edge by -90 degrees for counter clockwise polygons to point it outwards
+			float normalX = edgeY * windingSign;
+			float normalY = -edgeX * windingSign;
+			float length = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+			localNormals[i] = normalX / length;
+			localNormals[i + 1] = normalY / length;
+		}
+
+		this.localAxes = new float[vertices.length];
+		this.axisCount = canonicalizeAxes(localNormals, localAxes);
+		this.worldAxes = new float[axisCount * 2];
+	}
+
+	/**
+	 * Copies the normals that are not parallel to an earlier normal into axes. Each kept axis has its
+	 * sign fixed to point into the positive x half plane (or up, if vertical), so identical axes
+	 * always have the same direction.
+	 * 
+	 * @return the number of unique axes.
+	 */
+	private static int canonicalizeAxes(float[] normals, float[] axes)
+	{
+		int count = 0;
+		for (int i = 0; i < normals.length; i += 2)
+		{
+			float axisX = normals[i];
+			float axisY = normals[i + 1];
+			if (axisX < 0 || (axisX == 0 && axisY < 0))
+			{
+				axisX = -axisX;
+				axisY = -axisY;
+			}
+
+			boolean unique = true;
+			for (int j = 0; j < count * 2 && unique; j += 2)
+			{
+				unique = !SAT.isParallel(axisX, axisY, axes[j], axes[j + 1]);
+			}
+			if (unique)
+			{
+				axes[count * 2] = axisX;
+				axes[count * 2 + 1] = axisY;
+				++count;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Twice the signed area of the polygon; positive for counter clockwise winding.
+	 */
+	private static float signedArea(float[] vertices)
+	{
+		float area = 0;
+		for (int i = 0; i < vertices.length; i += 2)
+		{
+			int next = (i + 2) % vertices.length;
+			area += vertices[i] * vertices[next + 1] - vertices[next] * vertices[i + 1];
+		}
+		return area;
+	}
+
+	/**
+	 * @return the libGDX polygon that holds this shape's transform.
+	 */
+	public Polygon getPolygon()
+	{
+		return polygon;
+	}
+
+	public int getEdgeCount()
+	{
+		return edgeCount;
+	}
+
+	/**
+	 * @return world space vertices as x,y pairs. Owned by the polygon, do not modify.
+	 */
+	public float[] getWorldVertices()
+	{
+		return polygon.getTransformedVertices();
+	}
+
+	/**
+	 * @return unit length world space edge normals as x,y pairs, one per edge. Owned by this shape,
+	 *         do not modify.
+	 */
+	public float[] getWorldNormals()
+	{
+		float rotation = polygon.getRotation();
+		float scaleX = polygon.getScaleX();
+		float scaleY = polygon.getScaleY();
+		if (normalsDirty || rotation != normalsRotation || scaleX != normalsScaleX || scaleY != normalsScaleY)
+		{
+			updateWorldNormals(rotation, scaleX, scaleY);
+		}
+		return worldNormals;
+	}
+
+	/**
+	 * @return the smallest (vertex DOT axis) over the world space vertices.
+	 */
+	float minProjection(float axisX, float axisY)
+	{
+		float[] vertices = getWorldVertices();
+		if (edgeCount < hillClimbThreshold)
+		{
+			float min = Float.POSITIVE_INFINITY;
+			for (int i = 0; i < vertices.length; i += 2)
+			{
+				min = Math.min(min, SAT.dot2D(vertices[i], vertices[i + 1], axisX, axisY));
+			}
+			return min;
+		}
+		// climbing towards the largest projection on the negated axis finds the smallest
+		int support = climb(vertices, minSupport, -axisX, -axisY);
+		minSupport = support;
+		return SAT.dot2D(vertices[2 * support], vertices[2 * support + 1], axisX, axisY);
+	}
+
+	/**
+	 * @return the largest (vertex DOT axis) over the world space vertices.
+	 */
+	float maxProjection(float axisX, float axisY)
+	{
+		float[] vertices = getWorldVertices();
+		if (edgeCount < hillClimbThreshold)
+		{
+			float max = Float.NEGATIVE_INFINITY;
+			for (int i = 0; i < vertices.length; i += 2)
+			{
+				max = Math.max(max, SAT.dot2D(vertices[i], vertices[i + 1], axisX, axisY));
+			}
+			return max;
+		}
+		int support = climb(vertices, maxSupport, axisX, axisY);
+		maxSupport = support;
+		return SAT.dot2D(vertices[2 * support], vertices[2 * support + 1], axisX, axisY);
+	}
+
+	/**
+	 * Walks around the polygon from start towards larger projections until neither neighbour is
+	 * larger.
+	 *
+	 * @return the index of the vertex furthest along the direction.
+	 */
+	private int climb(float[] vertices, int start, float directionX, float directionY)
+	{
+		int current = start < edgeCount ? start : 0;
+		float best = SAT.dot2D(vertices[2 * current], vertices[2 * current + 1], directionX, directionY);
+
+		// pick the direction that goes uphill, then keep going while it does
+		int next = current + 1 < edgeCount ? current + 1 : 0;
+		int step = 1;
+		float nextDot = SAT.dot2D(vertices[2 * next], vertices[2 * next + 1], directionX, directionY);
+		if (nextDot <= best)
+		{
+			step = edgeCount - 1; // i.e. -1, modulo the vertex count
+			next = (current + step) % edgeCount;
+			nextDot = SAT.dot2D(vertices[2 * next], vertices[2 * next + 1], directionX, directionY);
+		}
+		// every vertex is visited at most once, even if rounding makes the ring look flat
+		for (int steps = 0; nextDot > best && steps < edgeCount; ++steps)
+		{
+			current = next;
+			best = nextDot;
+			next = (current + step) % edgeCount;
+			nextDot = SAT.dot2D(vertices[2 * next], vertices[2 * next + 1], directionX, directionY);
+		}
+		return current;
+	}
+
+	public int getAxisCount()
+	{
+		return axisCount;
+	}
+
+	/**
+	 * @return the unique unit length world space axes as x,y pairs, see {@link #getAxisCount()}.
+	 *         Owned by this shape, do not modify.
+	 */
+	public float[] getWorldAxes()
+	{
+		getWorldNormals();
+		return worldAxes;
+	}
+
+	/**
+	 * Forces the world normals to be recomputed the next time they are used.
+	 */
+	public void dirty()
+	{
+		normalsDirty = true;
+	}
+
+	private void updateWorldNormals(float rotation, float scaleX, float scaleY)
+	{
+		float cos = MathUtils.cosDeg(rotation);
+		float sin = MathUtils.sinDeg(rotation);
+		boolean uniformScale = scaleX == scaleY && scaleX > 0;
+
+		transformNormals(localNormals, worldNormals, edgeCount, cos, sin, uniformScale, scaleX, scaleY);
+		transformNormals(localAxes, worldAxes, axisCount, cos, sin, uniformScale, scaleX, scaleY);
+
+		normalsRotation = rotation;
+		normalsScaleX = scaleX;
+		normalsScaleY = scaleY;
+		normalsDirty = false;
+	}
+
+	private static void transformNormals(float[] local, float[] world, int count, float cos, float sin, boolean uniformScale, float scaleX, float scaleY)
+	{
+		for (int i = 0; i < count * 2; i += 2)
+		{
+			float normalX = local[i];
+			float normalY = local[i + 1];
+			if (!uniformScale)
+			{
+				// normals transform by the inverse of the scale, which changes their length.
+				normalX /= scaleX;
+				normalY /= scaleY;
+				float length = (float) Math.sqrt(normalX * normalX + normalY * normalY);
+				normalX /= length;
+				normalY /= length;
+			}
+			world[i] = cos * normalX - sin * normalY;
+			world[i + 1] = sin * normalX + cos * normalY;
+		}
+	}
+}
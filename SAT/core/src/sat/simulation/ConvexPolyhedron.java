@@ -0,0 +1,344 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix3;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * A convex polyhedron that can be collided with SAT3D, e.g. a box, a wedge, a prism or any other
+ * convex hull given as vertices and faces.
+ *
+ * The cube path in SAT3D finds its axes from a hard coded vertex order. This class instead works
+ * them out once from the faces: the unique face normals, and the unique edge directions. Opposite
+ * faces of a box share an axis and a box's twelve edges only point three ways, so both lists are
+ * reduced to directions that are not parallel to each other. SAT3D then tests the face normals of
+ * both shapes plus the cross product of every pair of edge directions, which keeps the axis count
+ * as small as the shapes allow.
+ *
+ * Like ConvexPolygon2D, the world space vertices and axes are only recomputed when the transform has
+ * changed since they were last asked for.
+ *
+ * Not thread safe: the first read after the transform changes rewrites the world vertices and axes
+ * in place. A shape must not be tested from more than one thread at a time, unless it has been read
+ * (e.g. {@link #getWorldVertices()}) since it was last changed and is not changed again until every
+ * thread is done with it.
+ *
+ * @author Matt Stone
+ */
+public class ConvexPolyhedron
+{
+	private final float[] localVertices; // x,y,z triples
+	private final int vertexCount;
+
+	// unique axes as x,y,z triples
+	private final int faceAxisCount;
+	private final float[] localFaceAxes;
+	private final int edgeAxisCount;
+	private final float[] localEdgeAxes;
+
+	private final Matrix4 transform = new Matrix4();
+	private final Matrix3 normalMatrix = new Matrix3();
+	private final Vector3[] worldVertices;
+	private final Vector3[] worldFaceAxes;
+	private final Vector3[] worldEdgeAxes;
+	private boolean dirty = true;
+	private int version = 0;
+
+	/**
+	 * @param vertices local space vertices as x,y,z triples.
+	 * @param faces each face as a loop of indices into vertices, in either winding order. Every edge
+	 *            of the polyhedron must be an edge of some face.
+	 */
+	public ConvexPolyhedron(float[] vertices, int[][] faces)
+	{
+		if (vertices.length < 12 || vertices.length % 3 != 0)
+		{
+			throw new IllegalArgumentException("polyhedra must have at least 4 vertices");
+		}
+		if (faces.length < 4)
+		{
+			throw new IllegalArgumentException("polyhedra must have at least 4 faces");
+		}
+		this.localVertices = vertices.clone();
+		this.vertexCount = vertices.length / 3;
+
+		float centerX = 0, centerY = 0, centerZ = 0;
+		for (int i = 0; i < vertices.length; i += 3)
+		{
+			centerX += vertices[i];
+			centerY += vertices[i + 1];
+			centerZ += vertices[i + 2];
+		}
+		centerX /= vertexCount;
+		centerY /= vertexCount;
+		centerZ /= vertexCount;
+
+		float[] faceAxes = new float[faces.length * 3];
+		int faceCount = 0;
+		int edgeTotal = 0;
+		for (int[] face : faces)
+		{
+			edgeTotal += face.length;
+		}
+		float[] edgeAxes = new float[edgeTotal * 3];
+		int edgeCount = 0;
+
+		Vector3 direction = new Vector3();
+		for (int[] face : faces)
+		{
+			if (face.length < 3)
+			{
+				throw new IllegalArgumentException("faces must have at least 3 vertices");
+			}
+			faceNormal(vertices, face, centerX, centerY, centerZ, direction);
+			faceCount = addUnique(faceAxes, faceCount, direction);
+
+			for (int i = 0; i < face.length; ++i)
+			{
+				int start = face[i] * 3;
+				int end = face[(i + 1) % face.length] * 3;
+				direction.set(vertices[end] - vertices[start], vertices[end + 1] - vertices[start + 1], vertices[end + 2] - vertices[start + 2]).nor();
+				edgeCount = addUnique(edgeAxes, edgeCount, direction);
+			}
+		}
+
+		this.faceAxisCount = faceCount;
+		this.localFaceAxes = faceAxes;
+		this.edgeAxisCount = edgeCount;
+		this.localEdgeAxes = edgeAxes;
+
+		this.worldVertices = newVectors(vertexCount);
+		this.worldFaceAxes = newVectors(faceAxisCount);
+		this.worldEdgeAxes = newVectors(edgeAxisCount);
+	}
+
+	/**
+	 * Newell's method; the normal of a face even if its vertices are not quite planar. Points away
+	 * from the center of the polyhedron, so the face winding does not matter.
+	 */
+	private static void faceNormal(float[] vertices, int[] face, float centerX, float centerY, float centerZ, Vector3 out)
+	{
+		float normalX = 0, normalY = 0, normalZ = 0;
+		float faceX = 0, faceY = 0, faceZ = 0;
+		for (int i = 0; i < face.length; ++i)
+		{
+			int current = face[i] * 3;
+			int next = face[(i + 1) % face.length] * 3;
+			normalX += (vertices[current + 1] - vertices[next + 1]) * (vertices[current + 2] + vertices[next + 2]);
+			normalY += (vertices[current + 2] - vertices[next + 2]) * (vertices[current] + vertices[next]);
+			normalZ += (vertices[current] - vertices[next]) * (vertices[current + 1] + vertices[next + 1]);
+			faceX += vertices[current];
+			faceY += vertices[current + 1];
+			faceZ += vertices[current + 2];
+		}
+		out.set(normalX, normalY, normalZ).nor();
+		float outward = out.dot(faceX / face.length - centerX, faceY / face.length - centerY, faceZ / face.length - centerZ);
+		if (outward < 0)
+		{
+			out.scl(-1);
+		}
+	}
+
+	/**
+	 * Appends the direction to axes unless it is parallel to one that is already there.
+	 *
+	 * @return the new number of axes.
+	 */
+	private static int addUnique(float[] axes, int count, Vector3 direction)
+	{
+		for (int i = 0; i < count * 3; i += 3)
+		{
+			if (SAT3D.isParallel(direction, axes[i], axes[i + 1], axes[i + 2]))
+			{
+				return count;
+			}
+		}
+		axes[count * 3] = direction.x;
+		axes[count * 3 + 1] = direction.y;
+		axes[count * 3 + 2] = direction.z;
+		return count + 1;
+	}
+
+	private static Vector3[] newVectors(int count)
+	{
+		Vector3[] vectors = new Vector3[count];
+		for (int i = 0; i < count; ++i)
+		{
+			vectors[i] = new Vector3();
+		}
+		return vectors;
+	}
+
+	/* ------------------------------- FACTORIES ----------------------------- */
+
+	/**
+	 * A box centered on the origin.
+	 */
+	public static ConvexPolyhedron box(float halfWidth, float halfHeight, float halfDepth)
+	{
+		float[] vertices = {
+				-halfWidth, -halfHeight, -halfDepth, halfWidth, -halfHeight, -halfDepth, halfWidth, halfHeight, -halfDepth, -halfWidth, halfHeight, -halfDepth,
+				-halfWidth, -halfHeight, halfDepth, halfWidth, -halfHeight, halfDepth, halfWidth, halfHeight, halfDepth, -halfWidth, halfHeight, halfDepth };
+		int[][] faces = { { 0, 1, 2, 3 }, { 4, 5, 6, 7 }, { 0, 1, 5, 4 }, { 3, 2, 6, 7 }, { 0, 3, 7, 4 }, { 1, 2, 6, 5 } };
+		return new ConvexPolyhedron(vertices, faces);
+	}
+
+	/**
+	 * A ramp: a box with its top rear edge cut off, so it slopes from full height at the front (+z)
+	 * to nothing at the back (-z).
+	 */
+	public static ConvexPolyhedron wedge(float halfWidth, float halfHeight, float halfDepth)
+	{
+		float[] vertices = {
+				-halfWidth, -halfHeight, -halfDepth, halfWidth, -halfHeight, -halfDepth,
+				-halfWidth, -halfHeight, halfDepth, halfWidth, -halfHeight, halfDepth,
+				-halfWidth, halfHeight, halfDepth, halfWidth, halfHeight, halfDepth };
+		int[][] faces = { { 0, 1, 3, 2 }, { 2, 3, 5, 4 }, { 0, 1, 5, 4 }, { 0, 2, 4 }, { 1, 3, 5 } };
+		return new ConvexPolyhedron(vertices, faces);
+	}
+
+	/**
+	 * A right prism whose caps are regular polygons in the xz plane, centered on the origin.
+	 *
+	 * @param sides number of sides of the caps, at least 3.
+	 * @param radius distance from the axis to each corner of a cap.
+	 */
+	public static ConvexPolyhedron prism(int sides, float radius, float halfHeight)
+	{
+		if (sides < 3)
+		{
+			throw new IllegalArgumentException("prisms must have at least 3 sides");
+		}
+		float[] vertices = new float[sides * 2 * 3];
+		int[] bottom = new int[sides];
+		int[] top = new int[sides];
+		int[][] faces = new int[sides + 2][];
+		for (int i = 0; i < sides; ++i)
+		{
+			float angle = MathUtils.PI2 * i / sides;
+			float x = radius * MathUtils.cos(angle);
+			float z = radius * MathUtils.sin(angle);
+			vertices[i * 3] = x;
+			vertices[i * 3 + 1] = -halfHeight;
+			vertices[i * 3 + 2] = z;
+			vertices[(sides + i) * 3] = x;
+			vertices[(sides + i) * 3 + 1] = halfHeight;
+			vertices[(sides + i) * 3 + 2] = z;
+			bottom[i] = i;
+			top[i] = sides + i;
+
+			int next = (i + 1) % sides;
+			faces[i] = new int[] { i, next, sides + next, sides + i };
+		}
+		faces[sides] = bottom;
+		faces[sides + 1] = top;
+		return new ConvexPolyhedron(vertices, faces);
+	}
+
+	/* ------------------------------- TRANSFORM ----------------------------- */
+
+	/**
+	 * Copies the local to world transform; the world vertices and axes are recomputed the next time
+	 * they are used.
+	 */
+	public void setTransform(Matrix4 transform)
+	{
+		this.transform.set(transform);
+		dirty();
+	}
+
+	/**
+	 * @return the local to world transform. Call {@link #dirty()} after changing it.
+	 */
+	public Matrix4 getTransform()
+	{
+		return transform;
+	}
+
+	/**
+	 * Forces the world vertices and axes to be recomputed the next time they are used.
+	 */
+	public void dirty()
+	{
+		dirty = true;
+		++version;
+	}
+
+	/**
+	 * @return a number that changes every time the transform is set or marked dirty, so callers can
+	 *         tell whether the shape has moved since they last looked.
+	 */
+	public int getVersion()
+	{
+		return version;
+	}
+
+	public int getVertexCount()
+	{
+		return vertexCount;
+	}
+
+	public int getFaceAxisCount()
+	{
+		return faceAxisCount;
+	}
+
+	public int getEdgeAxisCount()
+	{
+		return edgeAxisCount;
+	}
+
+	/**
+	 * @return world space vertices. Owned by this shape, do not modify.
+	 */
+	public Vector3[] getWorldVertices()
+	{
+		update();
+		return worldVertices;
+	}
+
+	/**
+	 * @return the unique world space face normals, unit length. Owned by this shape, do not modify.
+	 */
+	public Vector3[] getWorldFaceAxes()
+	{
+		update();
+		return worldFaceAxes;
+	}
+
+	/**
+	 * @return the unique world space edge directions, unit length. Owned by this shape, do not
+	 *         modify.
+	 */
+	public Vector3[] getWorldEdgeAxes()
+	{
+		update();
+		return worldEdgeAxes;
+	}
+
+	private void update()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+		for (int i = 0; i < vertexCount; ++i)
+		{
+			worldVertices[i].set(localVertices[i * 3], localVertices[i * 3 + 1], localVertices[i * 3 + 2]).mul(transform);
+		}
+
+		// normals transform by the inverse transpose, so they stay perpendicular to their faces under
+		// non-uniform scale. Edges are directions in the faces and transform like any other vector.
+		normalMatrix.set(transform).inv().transpose();
+		for (int i = 0; i < faceAxisCount; ++i)
+		{
+			worldFaceAxes[i].set(localFaceAxes[i * 3], localFaceAxes[i * 3 + 1], localFaceAxes[i * 3 + 2]).mul(normalMatrix).nor();
+		}
+		for (int i = 0; i < edgeAxisCount; ++i)
+		{
+			worldEdgeAxes[i].set(localEdgeAxes[i * 3], localEdgeAxes[i * 3 + 1], localEdgeAxes[i * 3 + 2]).rot(transform).nor();
+		}
+		dirty = false;
+	}
+}
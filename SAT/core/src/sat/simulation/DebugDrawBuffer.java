@@ -0,0 +1,98 @@
+package sat.simulation;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * Debug lines recorded during a frame and drawn all at once.
+ *
+ * The SAT debug paths used to draw each axis and projection as they went, with a ShapeRenderer
+ * begin/end around each one. Every end flushes the renderer's batch to the GPU, so a single test
+ * cost a dozen or so draw calls and visualizing more than a few pairs stalled the frame. The engines
+ * now only record lines here; {@link #flush(ShapeRenderer)} draws them in one begin/end, or inside
+ * the caller's own begin/end if it is already drawing lines.
+ *
+ * While disabled, nothing is recorded and flush draws nothing. The buffer keeps its capacity
+ * between frames, so recording allocates nothing once it has grown to a frame's worth of lines.
+ *
+ * @author Matt Stone
+ */
+public class DebugDrawBuffer
+{
+	private static final int FLOATS_PER_LINE = 5; // x1, y1, x2, y2, packed color
+
+	public boolean enabled = true;
+
+	private final FloatArray lines = new FloatArray(64 * FLOATS_PER_LINE);
+	private final Color color = new Color();
+
+	public void line(float x1, float y1, float x2, float y2, Color color)
+	{
+		if (!enabled)
+		{
+			return;
+		}
+		lines.add(x1);
+		lines.add(y1);
+		lines.add(x2);
+		lines.add(y2);
+		lines.add(color.toFloatBits());
+	}
+
+	/**
+	 * @return the number of lines recorded since the last flush or clear.
+	 */
+	public int size()
+	{
+		return lines.size / FLOATS_PER_LINE;
+	}
+
+	public void clear()
+	{
+		lines.clear();
+	}
+
+	/**
+	 * Draws every recorded line and clears the buffer. If the renderer is already drawing lines they
+	 * are added to that batch; otherwise the renderer is begun and ended once here. The renderer's
+	 * color is restored afterwards.
+	 *
+	 * @throws IllegalStateException if the renderer is drawing a shape type other than lines.
+	 */
+	public void flush(ShapeRenderer renderer)
+	{
+		if (lines.size == 0)
+		{
+			return;
+		}
+
+		boolean ownBatch = !renderer.isDrawing();
+		if (ownBatch)
+		{
+			renderer.begin(ShapeType.Line);
+		}
+		else if (renderer.getCurrentType() != ShapeType.Line)
+		{
+			throw new IllegalStateException("flush inside a ShapeType.Line batch or outside any batch");
+		}
+
+		float previousColor = renderer.getColor().toFloatBits();
+		float[] items = lines.items;
+		for (int i = 0; i < lines.size; i += FLOATS_PER_LINE)
+		{
+			Color.abgr8888ToColor(color, items[i + 4]);
+			renderer.setColor(color);
+			renderer.line(items[i], items[i + 1], items[i + 2], items[i + 3]);
+		}
+		Color.abgr8888ToColor(color, previousColor);
+		renderer.setColor(color);
+
+		if (ownBatch)
+		{
+			renderer.end();
+		}
+		lines.clear();
+	}
+}
@@ -0,0 +1,530 @@
+package sat.simulation;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Dynamic bounding volume tree broadphase, in the style of Box2D's b2DynamicTree.
+ *
+ * Every proxy is a leaf of a binary tree; each internal node holds the union of its children's
+ * bounds, so whole subtrees are skipped when a query box misses them. This copes well with objects
+ * of very different sizes and with worlds where most objects never move.
+ *
+ * Leaves are stored with fattened bounds: the proxy's bounds grown by a margin. Moving a proxy only
+ * touches the tree when its new bounds leave the fat bounds; otherwise the move is a copy. When a
+ * leaf is reinserted, every ancestor on the way back up is refit and rebalanced with tree rotations
+ * so the tree stays shallow.
+ *
+ * Nodes live in flat arrays indexed by node id rather than as linked objects. A proxy id is the id
+ * of its leaf node. Works for 2D polygons (bounds from {@link Aabb#fromVertices2D}, with a 2
+ * dimensional instance) and CubeInstance boxes (bounds from {@link Aabb#fromVertices3D}). Not thread
+ * safe.
+ *
+ * @author Matt Stone
+ */
+public class DynamicAabbTree implements Broadphase
+{
+	private static final int NONE = -1;
+
+	/** margin used by the default constructors; suits the 3D demo's unit sized cubes */
+	public static float defaultMargin = 0.1f;
+
+	private final int dimensions;
+	private final float margin;
+
+	// node data. A free node has height -1 and its parent slot links to the next free node.
+	private float[] fatBounds = new float[16 * Aabb.SIZE];
+	private float[] tightBounds = new float[16 * Aabb.SIZE]; // leaves only; the proxy's real bounds
+	private int[] parent = new int[16];
+	private int[] child1 = new int[16];
+	private int[] child2 = new int[16];
+	private int[] height = new int[16];
+	private int root = NONE;
+	private int freeList = NONE;
+	private int nodeCapacityUsed = 0;
+	private int proxyCount = 0;
+
+	// scratch stack for traversals
+	private final IntArray stack = new IntArray();
+
+	/**
+	 * A tree for 3D bounds with the default margin.
+	 */
+	public DynamicAabbTree()
+	{
+		this(3, defaultMargin);
+	}
+
+	/**
+	 * @param dimensions 2 to only fatten and score the x and y bounds (2D shapes have no depth), or 3.
+	 * @param margin how far each proxy's bounds are grown on every side. Larger margins mean fewer
+	 *            tree updates for moving proxies but more candidate pairs.
+	 */
+	public DynamicAabbTree(int dimensions, float margin)
+	{
+		if (dimensions != 2 && dimensions != 3)
+		{
+			throw new IllegalArgumentException("dimensions must be 2 or 3");
+		}
+		if (!(margin >= 0))
+		{
+			throw new IllegalArgumentException("margin must not be negative");
+		}
+		this.dimensions = dimensions;
+		this.margin = margin;
+	}
+
+	@Override
+	public int createProxy(float[] aabb)
+	{
+		int leaf = allocateNode();
+		System.arraycopy(aabb, 0, tightBounds, leaf * Aabb.SIZE, Aabb.SIZE);
+		fatten(leaf);
+		insertLeaf(leaf);
+		++proxyCount;
+		return leaf;
+	}
+
+	@Override
+	public void moveProxy(int proxy, float[] aabb)
+	{
+		System.arraycopy(aabb, 0, tightBounds, proxy * Aabb.SIZE, Aabb.SIZE);
+		if (contains(fatBounds, proxy * Aabb.SIZE, aabb))
+		{
+			// still inside its fat bounds, the tree does not change
+			return;
+		}
+		removeLeaf(proxy);
+		fatten(proxy);
+		insertLeaf(proxy);
+	}
+
+	@Override
+	public void destroyProxy(int proxy)
+	{
+		if (proxy < 0 || proxy >= nodeCapacityUsed || height[proxy] != 0)
+		{
+			throw new IllegalArgumentException("no such proxy: " + proxy);
+		}
+		removeLeaf(proxy);
+		freeNode(proxy);
+		--proxyCount;
+	}
+
+	/**
+	 * @return the number of live proxies.
+	 */
+	public int size()
+	{
+		return proxyCount;
+	}
+
+	/**
+	 * @return the height of the tree; 0 for a single leaf, -1 when empty.
+	 */
+	public int getHeight()
+	{
+		return root == NONE ? -1 : height[root];
+	}
+
+	/**
+	 * Finds every proxy whose bounds overlap a box.
+	 *
+	 * @param aabb the box to query, laid out as in {@link Aabb}.
+	 * @param results cleared, then filled with the ids of the overlapping proxies.
+	 * @return the number of proxies found.
+	 */
+	public int query(float[] aabb, IntArray results)
+	{
+		results.clear();
+		if (root == NONE)
+		{
+			return 0;
+		}
+		stack.clear();
+		stack.add(root);
+		while (stack.size > 0)
+		{
+			int node = stack.pop();
+			if (!Aabb.overlaps(fatBounds, node * Aabb.SIZE, aabb, 0))
+			{
+				continue;
+			}
+			if (isLeaf(node))
+			{
+				if (Aabb.overlaps(tightBounds, node * Aabb.SIZE, aabb, 0))
+				{
+					results.add(node);
+				}
+			}
+			else
+			{
+				stack.add(child1[node]);
+				stack.add(child2[node]);
+			}
+		}
+		return results.size;
+	}
+
+	@Override
+	public int computePairs(IntArray pairs)
+	{
+		pairs.clear();
+		if (proxyCount < 2)
+		{
+			return 0;
+		}
+
+		// query the tree with every leaf. Each pair is found from both of its leaves, so it is only
+		// kept from the one with the lower id.
+		for (int leaf = 0; leaf < nodeCapacityUsed; ++leaf)
+		{
+			if (height[leaf] != 0)
+			{
+				continue;
+			}
+			int leafOffset = leaf * Aabb.SIZE;
+			stack.clear();
+			stack.add(root);
+			while (stack.size > 0)
+			{
+				int node = stack.pop();
+				if (!Aabb.overlaps(fatBounds, node * Aabb.SIZE, tightBounds, leafOffset))
+				{
+					continue;
+				}
+				if (isLeaf(node))
+				{
+					if (node > leaf && Aabb.overlaps(tightBounds, node * Aabb.SIZE, tightBounds, leafOffset))
+					{
+						pairs.add(leaf);
+						pairs.add(node);
+					}
+				}
+				else
+				{
+					stack.add(child1[node]);
+					stack.add(child2[node]);
+				}
+			}
+		}
+		return pairs.size / 2;
+	}
+
+	/* ------------------------------- TREE UPDATES ----------------------------- */
+
+	private boolean isLeaf(int node)
+	{
+		return child1[node] == NONE;
+	}
+
+	private void insertLeaf(int leaf)
+	{
+		if (root == NONE)
+		{
+			root = leaf;
+			parent[leaf] = NONE;
+			return;
+		}
+
+		// walk down to the sibling that makes the tree's total cost grow the least
+		int leafOffset = leaf * Aabb.SIZE;
+		int index = root;
+		while (!isLeaf(index))
+		{
+			int left = child1[index];
+			int right = child2[index];
+
+			float cost = cost(fatBounds, index * Aabb.SIZE);
+			float combinedCost = combinedCost(index * Aabb.SIZE, leafOffset);
+
+			// cost of creating a new parent for this node and the new leaf
+			float siblingCost = 2 * combinedCost;
+
+			// the minimum cost pushed onto the ancestors if the leaf goes further down
+			float inheritanceCost = 2 * (combinedCost - cost);
+
+			float leftCost = descendCost(left, leafOffset) + inheritanceCost;
+			float rightCost = descendCost(right, leafOffset) + inheritanceCost;
+			if (siblingCost < leftCost && siblingCost < rightCost)
+			{
+				break;
+			}
+			index = leftCost < rightCost ? left : right;
+		}
+		int sibling = index;
+
+		// create a new parent for the sibling and the leaf
+		int oldParent = parent[sibling];
+		int newParent = allocateNode();
+		parent[newParent] = oldParent;
+		height[newParent] = height[sibling] + 1;
+		union(newParent, sibling, leaf);
+		if (oldParent != NONE)
+		{
+			replaceChild(oldParent, sibling, newParent);
+		}
+		else
+		{
+			root = newParent;
+		}
+		child1[newParent] = sibling;
+		child2[newParent] = leaf;
+		parent[sibling] = newParent;
+		parent[leaf] = newParent;
+
+		refitAncestors(parent[leaf]);
+	}
+
+	private void removeLeaf(int leaf)
+	{
+		if (leaf == root)
+		{
+			root = NONE;
+			return;
+		}
+
+		int oldParent = parent[leaf];
+		int grandParent = parent[oldParent];
+		int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+
+		// the sibling takes the place of the parent
+		if (grandParent != NONE)
+		{
+			replaceChild(grandParent, oldParent, sibling);
+			parent[sibling] = grandParent;
+			freeNode(oldParent);
+			refitAncestors(grandParent);
+		}
+		else
+		{
+			root = sibling;
+			parent[sibling] = NONE;
+			freeNode(oldParent);
+		}
+	}
+
+	/**
+	 * Rebalances and recomputes the bounds and height of a node and every node above it.
+	 */
+	private void refitAncestors(int index)
+	{
+		while (index != NONE)
+		{
+			index = balance(index);
+			union(index, child1[index], child2[index]);
+			height[index] = 1 + Math.max(height[child1[index]], height[child2[index]]);
+			index = parent[index];
+		}
+	}
+
+	/**
+	 * If one child of a node is more than one level taller than the other, rotates the taller
+	 * child's taller child up into the node's place.
+	 *
+	 * @return the node now at the top of this subtree.
+	 */
+	private int balance(int a)
+	{
+		if (isLeaf(a) || height[a] < 2)
+		{
+			return a;
+		}
+
+		int b = child1[a];
+		int c = child2[a];
+		int difference = height[c] - height[b];
+
+		if (difference > 1)
+		{
+			// rotate c up
+			int f = child1[c];
+			int g = child2[c];
+			child1[c] = a;
+			parent[c] = parent[a];
+			parent[a] = c;
+			if (parent[c] != NONE)
+			{
+				replaceChild(parent[c], a, c);
+			}
+			else
+			{
+				root = c;
+			}
+
+			// a keeps the shorter of c's children
+			int keep = height[f] > height[g] ? f : g;
+			int give = keep == f ? g : f;
+			child2[c] = keep;
+			child2[a] = give;
+			parent[give] = a;
+			union(a, b, give);
+			union(c, a, keep);
+			height[a] = 1 + Math.max(height[b], height[give]);
+			height[c] = 1 + Math.max(height[a], height[keep]);
+			return c;
+		}
+
+		if (difference < -1)
+		{
+			// rotate b up
+			int d = child1[b];
+			int e = child2[b];
+			child1[b] = a;
+			parent[b] = parent[a];
+			parent[a] = b;
+			if (parent[b] != NONE)
+			{
+				replaceChild(parent[b], a, b);
+			}
+			else
+			{
+				root = b;
+			}
+
+			int keep = height[d] > height[e] ? d : e;
+			int give = keep == d ? e : d;
+			child2[b] = keep;
+			child1[a] = give;
+			parent[give] = a;
+			union(a, c, give);
+			union(b, a, keep);
+			height[a] = 1 + Math.max(height[c], height[give]);
+			height[b] = 1 + Math.max(height[a], height[keep]);
+			return b;
+		}
+
+		return a;
+	}
+
+	private void replaceChild(int node, int oldChild, int newChild)
+	{
+		if (child1[node] == oldChild)
+		{
+			child1[node] = newChild;
+		}
+		else
+		{
+			child2[node] = newChild;
+		}
+	}
+
+	/* ------------------------------- BOUNDS ----------------------------- */
+
+	private void fatten(int leaf)
+	{
+		int offset = leaf * Aabb.SIZE;
+		for (int axis = 0; axis < dimensions; ++axis)
+		{
+			fatBounds[offset + Aabb.MIN_X + axis] = tightBounds[offset + Aabb.MIN_X + axis] - margin;
+			fatBounds[offset + Aabb.MAX_X + axis] = tightBounds[offset + Aabb.MAX_X + axis] + margin;
+		}
+		for (int axis = dimensions; axis < 3; ++axis)
+		{
+			fatBounds[offset + Aabb.MIN_X + axis] = tightBounds[offset + Aabb.MIN_X + axis];
+			fatBounds[offset + Aabb.MAX_X + axis] = tightBounds[offset + Aabb.MAX_X + axis];
+		}
+	}
+
+	private static boolean contains(float[] outer, int outerOffset, float[] inner)
+	{
+		for (int axis = 0; axis < 3; ++axis)
+		{
+			if (inner[Aabb.MIN_X + axis] < outer[outerOffset + Aabb.MIN_X + axis] || inner[Aabb.MAX_X + axis] > outer[outerOffset + Aabb.MAX_X + axis])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Sets a node's fat bounds to the union of two other nodes' fat bounds.
+	 */
+	private void union(int node, int first, int second)
+	{
+		int out = node * Aabb.SIZE, a = first * Aabb.SIZE, b = second * Aabb.SIZE;
+		for (int axis = 0; axis < 3; ++axis)
+		{
+			fatBounds[out + Aabb.MIN_X + axis] = Math.min(fatBounds[a + Aabb.MIN_X + axis], fatBounds[b + Aabb.MIN_X + axis]);
+			fatBounds[out + Aabb.MAX_X + axis] = Math.max(fatBounds[a + Aabb.MAX_X + axis], fatBounds[b + Aabb.MAX_X + axis]);
+		}
+	}
+
+	/**
+	 * The cost of a box: its perimeter in 2D, its surface area in 3D (both halved, only comparisons
+	 * matter). Big boxes are more likely to be hit by queries, so the tree tries to keep them small.
+	 */
+	private float cost(float[] bounds, int offset)
+	{
+		float sizeX = bounds[offset + Aabb.MAX_X] - bounds[offset + Aabb.MIN_X];
+		float sizeY = bounds[offset + Aabb.MAX_Y] - bounds[offset + Aabb.MIN_Y];
+		if (dimensions == 2)
+		{
+			return sizeX + sizeY;
+		}
+		float sizeZ = bounds[offset + Aabb.MAX_Z] - bounds[offset + Aabb.MIN_Z];
+		return sizeX * sizeY + sizeY * sizeZ + sizeZ * sizeX;
+	}
+
+	/**
+	 * The cost of the union of two nodes' fat bounds.
+	 */
+	private float combinedCost(int aOffset, int bOffset)
+	{
+		float sizeX = Math.max(fatBounds[aOffset + Aabb.MAX_X], fatBounds[bOffset + Aabb.MAX_X]) - Math.min(fatBounds[aOffset + Aabb.MIN_X], fatBounds[bOffset + Aabb.MIN_X]);
+		float sizeY = Math.max(fatBounds[aOffset + Aabb.MAX_Y], fatBounds[bOffset + Aabb.MAX_Y]) - Math.min(fatBounds[aOffset + Aabb.MIN_Y], fatBounds[bOffset + Aabb.MIN_Y]);
+		if (dimensions == 2)
+		{
+			return sizeX + sizeY;
+		}
+		float sizeZ = Math.max(fatBounds[aOffset + Aabb.MAX_Z], fatBounds[bOffset + Aabb.MAX_Z]) - Math.min(fatBounds[aOffset + Aabb.MIN_Z], fatBounds[bOffset + Aabb.MIN_Z]);
+		return sizeX * sizeY + sizeY * sizeZ + sizeZ * sizeX;
+	}
+
+	/**
+	 * The cost of moving the leaf down into a child: a leaf child would get a new parent, an internal
+	 * child would only grow.
+	 */
+	private float descendCost(int child, int leafOffset)
+	{
+		float combined = combinedCost(child * Aabb.SIZE, leafOffset);
+		return isLeaf(child) ? combined : combined - cost(fatBounds, child * Aabb.SIZE);
+	}
+
+	/* ------------------------------- STORAGE ----------------------------- */
+
+	private int allocateNode()
+	{
+		if (freeList == NONE)
+		{
+			if (nodeCapacityUsed == height.length)
+			{
+				int newCapacity = height.length * 2;
+				fatBounds = Arrays.copyOf(fatBounds, newCapacity * Aabb.SIZE);
+				tightBounds = Arrays.copyOf(tightBounds, newCapacity * Aabb.SIZE);
+				parent = Arrays.copyOf(parent, newCapacity);
+				child1 = Arrays.copyOf(child1, newCapacity);
+				child2 = Arrays.copyOf(child2, newCapacity);
+				height = Arrays.copyOf(height, newCapacity);
+			}
+			freeList = nodeCapacityUsed++;
+			parent[freeList] = NONE;
+		}
+		int node = freeList;
+		freeList = parent[node];
+		parent[node] = NONE;
+		child1[node] = NONE;
+		child2[node] = NONE;
+		height[node] = 0;
+		return node;
+	}
+
+	private void freeNode(int node)
+	{
+		parent[node] = freeList;
+		height[node] = -1;
+		freeList = node;
+	}
+}
@@ -0,0 +1,571 @@
+package sat.simulation;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * GJK intersection test with EPA penetration depth for convex vertex sets, e.g. cube corners or
+ * ConvexPolyhedron vertices.
+ *
+ * SAT has to project onto every face normal and every cross product of edge directions, so for two
+ * hulls with many faces its axis count grows with the product of their edge counts. GJK instead
+ * searches the Minkowski difference (every vertex of obj1 minus every vertex of obj2) for the
+ * origin, which is inside it exactly when the shapes overlap. Each step only needs the vertex of
+ * each shape that is furthest along a direction, and it usually converges in a handful of steps
+ * however many faces the shapes have.
+ *
+ * If the shapes overlap, EPA grows the final GJK tetrahedron outwards until it finds the face of the
+ * Minkowski difference that is closest to the origin. That face's normal and distance are the
+ * direction and depth of least penetration, and give the same MTV that SAT3D reports.
+ *
+ * Scratch space lives in the SatContext3D so the two engines can share a context.
+ *
+ * @author Matt Stone
+ */
+public class GJK3D
+{
+	/** the most GJK steps before the shapes are assumed to be touching */
+	public static int maxIterations = 64;
+
+	/** the most faces EPA adds to the polytope before it settles for the closest face so far */
+	public static int maxEpaIterations = 128;
+
+	/** EPA stops when a new support point is no further out than this from the closest face */
+	public static float epaTolerance = 0.0001f;
+
+	// results of the GJK search
+	private static final int SEPARATED = 0;
+	private static final int CONTAINED = 1;
+	private static final int TOUCHING = 2; // the origin is on the simplex, which is not a tetrahedron
+
+	/**
+	 * GJK boolean test; stops as soon as the answer is known.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 * @return true if the shapes overlap.
+	 */
+	public static boolean Collide_3D(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices)
+	{
+		SatMetrics.begin(context.callStats);
+		boolean collision = search(context, obj1Vertices, obj2Vertices) != SEPARATED;
+		SatMetrics.end(SatMetrics.GJK_3D, context.callStats, collision);
+		return collision;
+	}
+
+	public static boolean Collide_3D(SatContext3D context, ConvexPolyhedron obj1, ConvexPolyhedron obj2)
+	{
+		return Collide_3D(context, obj1.getWorldVertices(), obj2.getWorldVertices());
+	}
+
+	/**
+	 * GJK with an EPA minimum translation vector.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 * @param mtvBuffer receives the vector that moves obj1 out of obj2; set to zero if there is no
+	 *            collision.
+	 * @return true if the shapes overlap.
+	 */
+	public static boolean Collide_3D_mtv(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 mtvBuffer)
+	{
+		SatMetrics.begin(context.callStats);
+		int result = search(context, obj1Vertices, obj2Vertices);
+		if (result == SEPARATED)
+		{
+			mtvBuffer.set(0, 0, 0);
+			SatMetrics.end(SatMetrics.GJK_MTV_3D, context.callStats, false);
+			return false;
+		}
+
+		if (result == TOUCHING)
+		{
+			fillSimplex(context, obj1Vertices, obj2Vertices);
+		}
+		// the origin is inside the Minkowski difference; moving obj1 by -normal * depth moves the
+		// closest face onto the origin.
+		float depth = penetration(context, obj1Vertices, obj2Vertices, context.direction);
+		mtvBuffer.set(context.direction).scl(-(depth + SAT3D.constantOffset));
+		SatMetrics.end(SatMetrics.GJK_MTV_3D, context.callStats, true);
+		return true;
+	}
+
+	public static boolean Collide_3D_mtv(SatContext3D context, ConvexPolyhedron obj1, ConvexPolyhedron obj2, Vector3 mtvBuffer)
+	{
+		return Collide_3D_mtv(context, obj1.getWorldVertices(), obj2.getWorldVertices(), mtvBuffer);
+	}
+
+	/* ------------------------------- GJK ----------------------------- */
+
+	/**
+	 * Searches the Minkowski difference for the origin, building a simplex of support points in
+	 * context.simplex.
+	 *
+	 * @return SEPARATED, CONTAINED or TOUCHING.
+	 */
+	private static int search(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices)
+	{
+		Vector3 direction = context.direction;
+		Vector3[] simplex = context.simplex;
+		context.separatingAxis.set(0, 0, 0);
+
+		// start from the direction between the shapes
+		direction.set(obj2Vertices[0]).sub(obj1Vertices[0]);
+		if (direction.isZero())
+		{
+			direction.set(1, 0, 0);
+		}
+		support(obj1Vertices, obj2Vertices, direction, simplex[0]);
+		context.simplexSize = 1;
+		direction.set(simplex[0]).scl(-1);
+
+		for (int iteration = 0; iteration < maxIterations; ++iteration)
+		{
+			if (direction.isZero())
+			{
+				return TOUCHING;
+			}
+			Vector3 point = simplex[context.simplexSize];
+			support(obj1Vertices, obj2Vertices, direction, point);
+
+			// the furthest point towards the origin did not reach it, so direction separates the shapes
+			boolean overlap = point.dot(direction) >= 0;
+			SatMetrics.axisTested(context.callStats, overlap);
+			if (!overlap)
+			{
+				context.separatingAxis.set(direction);
+				return SEPARATED;
+			}
+			++context.simplexSize;
+			if (nextSimplex(context))
+			{
+				return CONTAINED;
+			}
+		}
+		return TOUCHING;
+	}
+
+	/**
+	 * Reduces the simplex to the feature closest to the origin and points the direction from it
+	 * towards the origin. The newest point is last; the origin is known to be past the older
+	 * feature in the direction of the newest point, which rules out most of the regions to check.
+	 *
+	 * @return true if the simplex is a tetrahedron that contains the origin.
+	 */
+	private static boolean nextSimplex(SatContext3D context)
+	{
+		switch (context.simplexSize)
+		{
+			case 2:
+				line(context);
+				return false;
+			case 3:
+				triangle(context);
+				return false;
+			default:
+				return tetrahedron(context);
+		}
+	}
+
+	private static void line(SatContext3D context)
+	{
+		Vector3[] simplex = context.simplex;
+		Vector3 a = simplex[1], b = simplex[0];
+		Vector3 ab = context.temp1.set(b).sub(a);
+		Vector3 ao = context.temp2.set(a).scl(-1);
+		if (ab.dot(ao) > 0)
+		{
+			// the origin is beside the segment; search perpendicular to it, towards the origin
+			context.direction.set(ab).crs(ao).crs(ab);
+		}
+		else
+		{
+			setSimplex(context, a);
+			context.direction.set(ao);
+		}
+	}
+
+	private static void triangle(SatContext3D context)
+	{
+		Vector3[] simplex = context.simplex;
+		Vector3 a = simplex[2], b = simplex[1], c = simplex[0];
+		Vector3 ab = context.temp1.set(b).sub(a);
+		Vector3 ac = context.temp2.set(c).sub(a);
+		Vector3 ao = context.temp3.set(a).scl(-1);
+		Vector3 abc = context.temp4.set(ab).crs(ac);
+
+		if (context.tempBuffer.set(abc).crs(ac).dot(ao) > 0)
+		{
+			if (ac.dot(ao) > 0)
+			{
+				// closest to edge ac
+				context.direction.set(ac).crs(ao).crs(ac);
+				setSimplex(context, c, a);
+			}
+			else
+			{
+				setSimplex(context, b, a);
+				line(context);
+			}
+		}
+		else if (context.tempBuffer.set(ab).crs(abc).dot(ao) > 0)
+		{
+			setSimplex(context, b, a);
+			line(context);
+		}
+		else if (abc.dot(ao) > 0)
+		{
+			// above the triangle
+			context.direction.set(abc);
+		}
+		else
+		{
+			// below the triangle; flip its winding so the next point is above it
+			context.direction.set(abc).scl(-1);
+			setSimplex(context, b, c, a);
+		}
+	}
+
+	private static boolean tetrahedron(SatContext3D context)
+	{
+		Vector3[] simplex = context.simplex;
+		Vector3 a = simplex[3], b = simplex[2], c = simplex[1], d = simplex[0];
+		Vector3 ab = context.temp1.set(b).sub(a);
+		Vector3 ac = context.temp2.set(c).sub(a);
+		Vector3 ad = context.temp3.set(d).sub(a);
+		Vector3 ao = context.temp4.set(a).scl(-1);
+		Vector3 normal = context.tempBuffer;
+
+		// the triangle case left the origin above bcd, so only the faces that touch a are checked
+		if (normal.set(ab).crs(ac).dot(ao) > 0)
+		{
+			setSimplex(context, c, b, a);
+			triangle(context);
+			return false;
+		}
+		if (normal.set(ac).crs(ad).dot(ao) > 0)
+		{
+			setSimplex(context, d, c, a);
+			triangle(context);
+			return false;
+		}
+		if (normal.set(ad).crs(ab).dot(ao) > 0)
+		{
+			setSimplex(context, b, d, a);
+			triangle(context);
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Replaces the simplex with the given points, oldest first. The points may be simplex vectors
+	 * themselves, so their values are copied out before any are overwritten.
+	 */
+	private static void setSimplex(SatContext3D context, Vector3 a)
+	{
+		context.simplex[0].set(a);
+		context.simplexSize = 1;
+	}
+
+	private static void setSimplex(SatContext3D context, Vector3 a, Vector3 b)
+	{
+		float ax = a.x, ay = a.y, az = a.z;
+		context.simplex[1].set(b);
+		context.simplex[0].set(ax, ay, az);
+		context.simplexSize = 2;
+	}
+
+	private static void setSimplex(SatContext3D context, Vector3 a, Vector3 b, Vector3 c)
+	{
+		float ax = a.x, ay = a.y, az = a.z;
+		float bx = b.x, by = b.y, bz = b.z;
+		context.simplex[2].set(c);
+		context.simplex[1].set(bx, by, bz);
+		context.simplex[0].set(ax, ay, az);
+		context.simplexSize = 3;
+	}
+
+	/**
+	 * Writes the point of the Minkowski difference furthest along the direction to out.
+	 */
+	private static void support(Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 direction, Vector3 out)
+	{
+		Vector3 furthest1 = furthest(obj1Vertices, direction.x, direction.y, direction.z);
+		Vector3 furthest2 = furthest(obj2Vertices, -direction.x, -direction.y, -direction.z);
+		out.set(furthest1).sub(furthest2);
+	}
+
+	private static Vector3 furthest(Vector3[] vertices, float directionX, float directionY, float directionZ)
+	{
+		Vector3 best = vertices[0];
+		float bestDot = best.dot(directionX, directionY, directionZ);
+		for (int i = 1; i < vertices.length; ++i)
+		{
+			float dot = vertices[i].dot(directionX, directionY, directionZ);
+			if (dot > bestDot)
+			{
+				bestDot = dot;
+				best = vertices[i];
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * GJK stopped with the origin on a point, segment or triangle. EPA needs a tetrahedron around
+	 * the origin, so add support points until the simplex has volume; the origin stays on its
+	 * boundary. The Minkowski difference of two solids has volume, so a direction off the current
+	 * simplex always exists.
+	 */
+	private static void fillSimplex(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices)
+	{
+		Vector3[] simplex = context.simplex;
+		Vector3 direction = context.direction;
+		float epsilon = SAT3D.parallelTolerance;
+
+		if (context.simplexSize == 1)
+		{
+			// support points along opposite directions are different unless the shape is flat
+			for (int axis = 0; axis < 6 && context.simplexSize == 1; ++axis)
+			{
+				direction.set(axis % 3 == 0 ? 1 : 0, axis % 3 == 1 ? 1 : 0, axis % 3 == 2 ? 1 : 0).scl(axis < 3 ? 1 : -1);
+				support(obj1Vertices, obj2Vertices, direction, simplex[1]);
+				if (simplex[1].dst2(simplex[0]) > epsilon * epsilon)
+				{
+					context.simplexSize = 2;
+				}
+			}
+		}
+		if (context.simplexSize == 2)
+		{
+			// try directions perpendicular to the segment
+			Vector3 segment = context.temp1.set(simplex[1]).sub(simplex[0]);
+			Vector3 perpendicular = context.temp2.set(Math.abs(segment.x) < Math.abs(segment.y) ? 1 : 0, Math.abs(segment.x) < Math.abs(segment.y) ? 0 : 1, 0).crs(segment);
+			Vector3 other = context.temp3.set(segment).crs(perpendicular);
+			for (int i = 0; i < 4 && context.simplexSize == 2; ++i)
+			{
+				direction.set(i < 2 ? perpendicular : other).scl(i % 2 == 0 ? 1 : -1);
+				support(obj1Vertices, obj2Vertices, direction, simplex[2]);
+				Vector3 offset = context.temp4.set(simplex[2]).sub(simplex[0]);
+				if (context.tempBuffer.set(offset).crs(segment).len2() > epsilon * epsilon * segment.len2() * offset.len2())
+				{
+					context.simplexSize = 3;
+				}
+			}
+		}
+		if (context.simplexSize == 3)
+		{
+			// one side of the triangle's plane has to hold more of the shape
+			Vector3 normal = context.temp1.set(simplex[1]).sub(simplex[0]).crs(context.temp2.set(simplex[2]).sub(simplex[0]));
+			float planeDistance = normal.dot(simplex[0]);
+			support(obj1Vertices, obj2Vertices, normal, simplex[3]);
+			if (normal.dot(simplex[3]) - planeDistance <= epsilon * normal.len())
+			{
+				normal.scl(-1);
+				support(obj1Vertices, obj2Vertices, normal, simplex[3]);
+			}
+			context.simplexSize = 4;
+		}
+	}
+
+	/* ------------------------------- EPA ----------------------------- */
+
+	/**
+	 * Expands the simplex (a tetrahedron around the origin) into the face of the Minkowski
+	 * difference that is closest to the origin.
+	 *
+	 * @param normalOut receives the face's unit outward normal.
+	 * @return the face's distance from the origin, i.e. the penetration depth.
+	 */
+	private static float penetration(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 normalOut)
+	{
+		context.polytopeSize = 0;
+		context.faceCount = 0;
+		for (int i = 0; i < 4; ++i)
+		{
+			addVertex(context, context.simplex[i]);
+		}
+
+		// orient the starting faces away from the tetrahedron's center; every later face keeps its
+		// winding from the face it replaces.
+		float[] polytope = context.polytope;
+		float centerX = (polytope[0] + polytope[3] + polytope[6] + polytope[9]) / 4;
+		float centerY = (polytope[1] + polytope[4] + polytope[7] + polytope[10]) / 4;
+		float centerZ = (polytope[2] + polytope[5] + polytope[8] + polytope[11]) / 4;
+		addStartFace(context, 0, 1, 2, centerX, centerY, centerZ);
+		addStartFace(context, 0, 3, 1, centerX, centerY, centerZ);
+		addStartFace(context, 0, 2, 3, centerX, centerY, centerZ);
+		addStartFace(context, 1, 3, 2, centerX, centerY, centerZ);
+
+		Vector3 point = context.temp1;
+		int closest = closestFace(context);
+		for (int iteration = 0; iteration < maxEpaIterations; ++iteration)
+		{
+			float[] normals = context.faceNormals;
+			normalOut.set(normals[4 * closest], normals[4 * closest + 1], normals[4 * closest + 2]);
+			float distance = normals[4 * closest + 3];
+
+			support(obj1Vertices, obj2Vertices, normalOut, point);
+			if (point.dot(normalOut) - distance < epaTolerance)
+			{
+				// the closest face is on the boundary of the Minkowski difference
+				break;
+			}
+
+			// remove every face the new point can see; the edges they leave open form the horizon
+			int newVertex = addVertex(context, point);
+			context.edgeCount = 0;
+			for (int face = context.faceCount - 1; face >= 0; --face)
+			{
+				int a = context.faces[3 * face];
+				float seen = normals[4 * face] * (point.x - context.polytope[3 * a]) + normals[4 * face + 1] * (point.y - context.polytope[3 * a + 1])
+						+ normals[4 * face + 2] * (point.z - context.polytope[3 * a + 2]);
+				// faces the point is (nearly) in the plane of are kept; removing them on rounding noise can
+				// leave a horizon that folds back on itself
+				if (seen > epaTolerance)
+				{
+					addHorizonEdge(context, a, context.faces[3 * face + 1]);
+					addHorizonEdge(context, context.faces[3 * face + 1], context.faces[3 * face + 2]);
+					addHorizonEdge(context, context.faces[3 * face + 2], a);
+					removeFace(context, face);
+				}
+			}
+
+			// close the hole with faces from the horizon to the new point
+			for (int edge = 0; edge < context.edgeCount; ++edge)
+			{
+				addFace(context, context.edges[2 * edge], context.edges[2 * edge + 1], newVertex);
+			}
+			if (context.faceCount == 0)
+			{
+				// only possible through rounding; the last closest face is as good as it gets
+				return Math.max(distance, 0);
+			}
+			closest = closestFace(context);
+		}
+
+		float depth = context.faceNormals[4 * closest + 3];
+		normalOut.set(context.faceNormals[4 * closest], context.faceNormals[4 * closest + 1], context.faceNormals[4 * closest + 2]);
+		return Math.max(depth, 0);
+	}
+
+	private static int closestFace(SatContext3D context)
+	{
+		int closest = 0;
+		float closestDistance = Float.POSITIVE_INFINITY;
+		for (int face = 0; face < context.faceCount; ++face)
+		{
+			float distance = context.faceNormals[4 * face + 3];
+			if (distance < closestDistance)
+			{
+				closestDistance = distance;
+				closest = face;
+			}
+		}
+		return closest;
+	}
+
+	private static int addVertex(SatContext3D context, Vector3 vertex)
+	{
+		if (3 * (context.polytopeSize + 1) > context.polytope.length)
+		{
+			context.polytope = Arrays.copyOf(context.polytope, context.polytope.length * 2);
+		}
+		int index = context.polytopeSize++;
+		context.polytope[3 * index] = vertex.x;
+		context.polytope[3 * index + 1] = vertex.y;
+		context.polytope[3 * index + 2] = vertex.z;
+		return index;
+	}
+
+	private static void addStartFace(SatContext3D context, int a, int b, int c, float centerX, float centerY, float centerZ)
+	{
+		int face = addFace(context, a, b, c);
+		float[] normals = context.faceNormals;
+		float[] polytope = context.polytope;
+		float outward = normals[4 * face] * (polytope[3 * a] - centerX) + normals[4 * face + 1] * (polytope[3 * a + 1] - centerY)
+				+ normals[4 * face + 2] * (polytope[3 * a + 2] - centerZ);
+		if (outward < 0)
+		{
+			removeFace(context, face);
+			addFace(context, a, c, b);
+		}
+	}
+
+	/**
+	 * Adds a face, computing its normal from its winding.
+	 *
+	 * @return the index of the face.
+	 */
+	private static int addFace(SatContext3D context, int a, int b, int c)
+	{
+		if (3 * (context.faceCount + 1) > context.faces.length)
+		{
+			context.faces = Arrays.copyOf(context.faces, context.faces.length * 2);
+			context.faceNormals = Arrays.copyOf(context.faceNormals, context.faceNormals.length * 2);
+		}
+		int face = context.faceCount++;
+		context.faces[3 * face] = a;
+		context.faces[3 * face + 1] = b;
+		context.faces[3 * face + 2] = c;
+
+		float[] p = context.polytope;
+		float abX = p[3 * b] - p[3 * a], abY = p[3 * b + 1] - p[3 * a + 1], abZ = p[3 * b + 2] - p[3 * a + 2];
+		float acX = p[3 * c] - p[3 * a], acY = p[3 * c + 1] - p[3 * a + 1], acZ = p[3 * c + 2] - p[3 * a + 2];
+		float normalX = abY * acZ - abZ * acY;
+		float normalY = abZ * acX - abX * acZ;
+		float normalZ = abX * acY - abY * acX;
+		float length = (float) Math.sqrt(normalX * normalX + normalY * normalY + normalZ * normalZ);
+
+		float[] normals = context.faceNormals;
+		if (length == 0)
+		{
+			// a sliver with no area; it can't be the closest face or be seen from any point
+			normals[4 * face] = normals[4 * face + 1] = normals[4 * face + 2] = 0;
+			normals[4 * face + 3] = Float.POSITIVE_INFINITY;
+			return face;
+		}
+		normals[4 * face] = normalX / length;
+		normals[4 * face + 1] = normalY / length;
+		normals[4 * face + 2] = normalZ / length;
+		normals[4 * face + 3] = (normalX * p[3 * a] + normalY * p[3 * a + 1] + normalZ * p[3 * a + 2]) / length;
+		return face;
+	}
+
+	/**
+	 * Moves the last face into the removed face's slot.
+	 */
+	private static void removeFace(SatContext3D context, int face)
+	{
+		int last = --context.faceCount;
+		System.arraycopy(context.faces, 3 * last, context.faces, 3 * face, 3);
+		System.arraycopy(context.faceNormals, 4 * last, context.faceNormals, 4 * face, 4);
+	}
+
+	/**
+	 * Adds an edge of a removed face to the horizon. An edge shared by two removed faces is inside
+	 * the hole, not on its rim; it shows up once in each direction, so the second sighting removes
+	 * it.
+	 */
+	private static void addHorizonEdge(SatContext3D context, int a, int b)
+	{
+		int[] edges = context.edges;
+		for (int edge = 0; edge < context.edgeCount; ++edge)
+		{
+			if (edges[2 * edge] == b && edges[2 * edge + 1] == a)
+			{
+				int last = --context.edgeCount;
+				edges[2 * edge] = edges[2 * last];
+				edges[2 * edge + 1] = edges[2 * last + 1];
+				return;
+			}
+		}
+		if (2 * (context.edgeCount + 1) > edges.length)
+		{
+			context.edges = edges = Arrays.copyOf(edges, edges.length * 2);
+		}
+		edges[2 * context.edgeCount] = a;
+		edges[2 * context.edgeCount + 1] = b;
+		++context.edgeCount;
+	}
+}
@@ -0,0 +1,65 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Picks SAT3D or GJK3D for each pair of polyhedra. Both report the same MTV: the vector that moves
+ * obj1 out of obj2, nudged by SAT3D's constant offset, or zero if there is no collision.
+ *
+ * SAT's cost grows with the number of axes: the face axes of both shapes plus a cross product for
+ * every pair of edge directions. For boxes that is at most 15 cheap projections and SAT wins. For
+ * many sided hulls the edge pairs explode, while GJK/EPA's cost barely depends on the face count.
+ * AUTO mode uses SAT until a pair would need more than {@link #autoAxisThreshold} axes.
+ *
+ * @author Matt Stone
+ */
+public class Narrowphase3D
+{
+	public static final int SAT = 0;
+	public static final int GJK = 1;
+	public static final int AUTO = 2;
+
+	/** pairs with more SAT axes than this use GJK in AUTO mode */
+	public static int autoAxisThreshold = 40;
+
+	/**
+	 * @param context scratch space owned by the calling thread.
+	 * @param mode SAT, GJK or AUTO.
+	 * @param mtvBuffer receives the vector that moves obj1 out of obj2; set to zero if there is no
+	 *            collision.
+	 * @return true if the polyhedra overlap.
+	 */
+	public static boolean Collide_3D_mtv(SatContext3D context, ConvexPolyhedron obj1, ConvexPolyhedron obj2, int mode, Vector3 mtvBuffer)
+	{
+		if (engineFor(obj1, obj2, mode) == GJK)
+		{
+			return GJK3D.Collide_3D_mtv(context, obj1, obj2, mtvBuffer);
+		}
+		return SAT3D.PolyhedronCollide_3D_mtv(context, obj1, obj2, mtvBuffer);
+	}
+
+	/**
+	 * @return SAT or GJK; the engine the mode resolves to for this pair.
+	 */
+	public static int engineFor(ConvexPolyhedron obj1, ConvexPolyhedron obj2, int mode)
+	{
+		switch (mode)
+		{
+			case SAT:
+			case GJK:
+				return mode;
+			case AUTO:
+				return satAxisCount(obj1, obj2) > autoAxisThreshold ? GJK : SAT;
+			default:
+				throw new IllegalArgumentException("unknown narrowphase mode " + mode);
+		}
+	}
+
+	/**
+	 * @return the most axes SAT3D tests for the pair; some edge pairs may turn out parallel.
+	 */
+	public static int satAxisCount(ConvexPolyhedron obj1, ConvexPolyhedron obj2)
+	{
+		return obj1.getFaceAxisCount() + obj2.getFaceAxisCount() + obj1.getEdgeAxisCount() * obj2.getEdgeAxisCount();
+	}
+}
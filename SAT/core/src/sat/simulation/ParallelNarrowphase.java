@@ -0,0 +1,209 @@
+package sat.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Runs the narrowphase over a list of candidate pairs (e.g. from a {@link Broadphase}) on a fork/join
+ * pool.
+ *
+ * The pair list is split in half until the pieces are at most grain pairs long, and the pieces are
+ * collided by the pool's workers. Every pair's result goes to its own slot of the output arrays, so
+ * the output is the same no matter which worker collided which pair or in what order. Splits are
+ * made on multiples of 64 pairs so no two workers ever write to the same word of the hit bit set.
+ *
+ * The 2D pairs use SATBatch2D, which needs no scratch space. The 3D pairs use SAT3D with a
+ * SatContext3D owned by each worker thread.
+ *
+ * @author Matt Stone
+ */
+public class ParallelNarrowphase
+{
+	/** pairs per task used by the single argument constructor */
+	public static int defaultGrain = 1024;
+
+	private final ForkJoinPool pool;
+	private final int grain;
+
+	// scratch space for the 3D path, one per worker thread
+	private final ThreadLocal<Scratch3D> scratch = new ThreadLocal<Scratch3D>()
+	{
+		@Override
+		protected Scratch3D initialValue()
+		{
+			return new Scratch3D();
+		}
+	};
+
+	/**
+	 * @param pool the pool to run on; owned by the caller.
+	 */
+	public ParallelNarrowphase(ForkJoinPool pool)
+	{
+		this(pool, defaultGrain);
+	}
+
+	/**
+	 * @param pool the pool to run on; owned by the caller.
+	 * @param grain the most pairs a single task collides; rounded up to a multiple of 64. Smaller grains
+	 *            balance better across workers, larger ones have less overhead.
+	 */
+	public ParallelNarrowphase(ForkJoinPool pool, int grain)
+	{
+		if (grain <= 0)
+		{
+			throw new IllegalArgumentException("grain must be positive");
+		}
+		this.pool = pool;
+		this.grain = (grain + 63) & ~63;
+	}
+
+	/**
+	 * The parallel version of SATBatch2D.PolygonCollide_2D_batch; takes and fills the same arrays.
+	 *
+	 * @return the number of colliding pairs.
+	 */
+	public int PolygonCollide_2D_batch(float[] coordinates, int[] shapeOffsets, int[] shapeVertexCounts, int[] pairs, int pairCount, long[] hitBits, float[] mtvs)
+	{
+		return pool.invoke(new Batch2DTask(coordinates, shapeOffsets, shapeVertexCounts, pairs, 0, pairCount, hitBits, mtvs));
+	}
+
+	/**
+	 * Collides every pair in the list with SAT3D.CubeCollide_3D_mtv.
+	 *
+	 * @param vertices world space vertices of each cube as 24 packed floats, e.g. filled by
+	 *            CubeInstance.getTransformVertices(float[]) before the call. They are read from many
+	 *            threads, so they must not change until this returns.
+	 * @param pairs cube indices, two per pair: {a0, b0, a1, b1, ...}
+	 * @param pairCount number of pairs to test.
+	 * @param hitBits receives a set bit for each colliding pair, laid out as in SATBatch2D.
+	 * @param mtvs receives the MTV of each pair as x,y,z at [3p, 3p + 2], zero for pairs that do not
+	 *            collide. May be null if MTVs are not needed.
+	 * @return the number of colliding pairs.
+	 */
+	public int CubeCollide_3D_batch(float[][] vertices, int[] pairs, int pairCount, long[] hitBits, float[] mtvs)
+	{
+		return pool.invoke(new Batch3DTask(vertices, pairs, 0, pairCount, hitBits, mtvs));
+	}
+
+	/**
+	 * Where to split a range: the middle, rounded to a multiple of 64 pairs.
+	 */
+	private static int split(int firstPair, int endPair)
+	{
+		return firstPair + ((((endPair - firstPair) >>> 1) + 63) & ~63);
+	}
+
+	private int collide3DRange(float[][] vertices, int[] pairs, int firstPair, int endPair, long[] hitBits, float[] mtvs)
+	{
+		Scratch3D workerScratch = scratch.get();
+		Vector3 mtv = workerScratch.mtv;
+
+		for (int p = firstPair; p < endPair; ++p)
+		{
+			hitBits[p >>> 6] &= ~(1L << p);
+		}
+
+		int hits = 0;
+		for (int p = firstPair; p < endPair; ++p)
+		{
+			boolean hit = SAT3D.CubeCollide_3D_mtv(workerScratch.context, vertices[pairs[2 * p]], vertices[pairs[2 * p + 1]], mtv);
+			if (hit)
+			{
+				hitBits[p >>> 6] |= 1L << p;
+				++hits;
+			}
+			if (mtvs != null)
+			{
+				mtvs[3 * p] = mtv.x;
+				mtvs[3 * p + 1] = mtv.y;
+				mtvs[3 * p + 2] = mtv.z;
+			}
+		}
+		return hits;
+	}
+
+	/* ------------------------------- HELPER CLASSES ----------------------------- */
+
+	private static class Scratch3D
+	{
+		final SatContext3D context = new SatContext3D();
+		final Vector3 mtv = new Vector3();
+	}
+
+	@SuppressWarnings("serial")
+	private class Batch2DTask extends RecursiveTask<Integer>
+	{
+		private final float[] coordinates;
+		private final int[] shapeOffsets;
+		private final int[] shapeVertexCounts;
+		private final int[] pairs;
+		private final int firstPair;
+		private final int endPair;
+		private final long[] hitBits;
+		private final float[] mtvs;
+
+		Batch2DTask(float[] coordinates, int[] shapeOffsets, int[] shapeVertexCounts, int[] pairs, int firstPair, int endPair, long[] hitBits, float[] mtvs)
+		{
+			this.coordinates = coordinates;
+			this.shapeOffsets = shapeOffsets;
+			this.shapeVertexCounts = shapeVertexCounts;
+			this.pairs = pairs;
+			this.firstPair = firstPair;
+			this.endPair = endPair;
+			this.hitBits = hitBits;
+			this.mtvs = mtvs;
+		}
+
+		@Override
+		protected Integer compute()
+		{
+			if (endPair - firstPair <= grain)
+			{
+				return SATBatch2D.collideRange(coordinates, shapeOffsets, shapeVertexCounts, pairs, firstPair, endPair, hitBits, mtvs);
+			}
+			int middle = split(firstPair, endPair);
+			Batch2DTask second = new Batch2DTask(coordinates, shapeOffsets, shapeVertexCounts, pairs, middle, endPair, hitBits, mtvs);
+			second.fork();
+			int hits = new Batch2DTask(coordinates, shapeOffsets, shapeVertexCounts, pairs, firstPair, middle, hitBits, mtvs).compute();
+			return hits + second.join();
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private class Batch3DTask extends RecursiveTask<Integer>
+	{
+		private final float[][] vertices;
+		private final int[] pairs;
+		private final int firstPair;
+		private final int endPair;
+		private final long[] hitBits;
+		private final float[] mtvs;
+
+		Batch3DTask(float[][] vertices, int[] pairs, int firstPair, int endPair, long[] hitBits, float[] mtvs)
+		{
+			this.vertices = vertices;
+			this.pairs = pairs;
+			this.firstPair = firstPair;
+			this.endPair = endPair;
+			this.hitBits = hitBits;
+			this.mtvs = mtvs;
+		}
+
+		@Override
+		protected Integer compute()
+		{
+			if (endPair - firstPair <= grain)
+			{
+				return collide3DRange(vertices, pairs, firstPair, endPair, hitBits, mtvs);
+			}
+			int middle = split(firstPair, endPair);
+			Batch3DTask second = new Batch3DTask(vertices, pairs, middle, endPair, hitBits, mtvs);
+			second.fork();
+			int hits = new Batch3DTask(vertices, pairs, firstPair, middle, hitBits, mtvs).compute();
+			return hits + second.join();
+		}
+	}
+}
@@ -1,11 +1,9 @@
 package sat.simulation;
 
 import java.util.ArrayList;
-import java.util.Stack;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.Vector2;
 
 /**
@@ -16,9 +14,11 @@ import com.badlogic.gdx.math.Vector2;
  */
 public class SAT
 {
-	private static Stack<Segment2D> recycledSegments = new Stack<Segment2D>();
-	private static ArrayList<Segment2D> obj1Vectors = new ArrayList<Segment2D>();
-	private static ArrayList<Segment2D> obj2Vectors = new ArrayList<Segment2D>();
+	/**
+	 * Scratch space used by the entry points that do not take a context. Shared by every caller, so
+	 * those entry points must only be used from one thread (e.g. the render thread).
+	 */
+	private static final SatContext2D sharedContext = new SatContext2D();
 
 	/**
 	 * SAT on 2D polygon. Assumes two sets of vertices can be used to provide a line segment surface
@@ -37,55 +37,461 @@ public class SAT
 	 */
 	public static boolean PolygonCollide_2D_v1(RenderInformation2D renderInfo, float[] obj1Vertices, float[] obj2Vertices)
 	{
+		return PolygonCollide_2D_v1(sharedContext, renderInfo, obj1Vertices, obj2Vertices);
+	}
+
+	/**
+	 * PolygonCollide_2D_v1 using the given context for scratch space instead of the shared one.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 */
+	public static boolean PolygonCollide_2D_v1(SatContext2D context, RenderInformation2D renderInfo, float[] obj1Vertices, float[] obj2Vertices)
+	{
+		SatMetrics.begin(context.callStats);
+
 		// determine normal vectors, these will be the axes
-		segmentize(obj1Vertices, obj1Vectors);
-		segmentize(obj2Vertices, obj2Vectors);
-		convertSegmentsToNormals(obj1Vectors);
-		convertSegmentsToNormals(obj2Vectors);
+		segmentize(context, obj1Vertices, context.obj1Vectors);
+		segmentize(context, obj2Vertices, context.obj2Vectors);
+		convertSegmentsToNormals(context.obj1Vectors);
+		convertSegmentsToNormals(context.obj2Vectors);
 
 		if (renderInfo != null)
 		{
-			renderAxes(renderInfo, obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
-			renderAxes(renderInfo, obj2Vectors, 0, 0, renderInfo.axisColorObj2);
+			renderAxes(renderInfo, context.obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
+			renderAxes(renderInfo, context.obj2Vectors, 0, 0, renderInfo.axisColorObj2);
 		}
 
 		// project min / max vertices on axes
 		// NOTE: boolean redundant checks because this method draws the projections, must check
 		// every projection to draw it.
 		boolean collision = true;
-		for (Segment2D axis : obj1Vectors)
+		for (int i = 0; i < context.obj1Vectors.size(); ++i)
 		{
+			Segment2D axis = context.obj1Vectors.get(i);
 			// test whether projections overlap.
 			// if there is a non-overlapping projection, there cannot be a collision.
-			collision &= projectionOverlap(obj1Vertices, obj2Vertices, axis, renderInfo);
+			boolean overlap = projectionOverlap(context, obj1Vertices, obj2Vertices, axis, renderInfo);
+			SatMetrics.axisTested(context.callStats, overlap);
+			collision &= overlap;
 		}
-		for (Segment2D axis : obj2Vectors)
+		for (int i = 0; i < context.obj2Vectors.size(); ++i)
 		{
-			collision &= projectionOverlap(obj1Vertices, obj2Vertices, axis, renderInfo);
+			Segment2D axis = context.obj2Vectors.get(i);
+			boolean overlap = projectionOverlap(context, obj1Vertices, obj2Vertices, axis, renderInfo);
+			SatMetrics.axisTested(context.callStats, overlap);
+			collision &= overlap;
 		}
 
 		// clean up resources
-		cleanUpRecycledResources();
+		cleanUpRecycledResources(context);
+		SatMetrics.end(SatMetrics.V1_2D, context.callStats, collision);
+		return collision;
+	}
+
+	/**
+	 * Headless SAT on 2D polygons. This is the same test as PolygonCollide_2D_v1, but it has no
+	 * rendering and returns as soon as a separating axis is found.
+	 * 
+	 * @param obj1Vertices
+	 * @param obj2Vertices
+	 * @return true if the polygons overlap.
+	 */
+	public static boolean PolygonCollide_2D(float[] obj1Vertices, float[] obj2Vertices)
+	{
+		return PolygonCollide_2D(sharedContext, obj1Vertices, obj2Vertices);
+	}
+
+	/**
+	 * PolygonCollide_2D using the given context for scratch space instead of the shared one.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 */
+	public static boolean PolygonCollide_2D(SatContext2D context, float[] obj1Vertices, float[] obj2Vertices)
+	{
+		SatMetrics.begin(context.callStats);
+		segmentize(context, obj1Vertices, context.obj1Vectors);
+		segmentize(context, obj2Vertices, context.obj2Vectors);
+		convertSegmentsToNormals(context.obj1Vectors);
+		convertSegmentsToNormals(context.obj2Vectors);
+
+		boolean collision = noSeparatingAxis(context, obj1Vertices, obj2Vertices, context.obj1Vectors) && noSeparatingAxis(context, obj1Vertices, obj2Vertices, context.obj2Vectors);
+
+		cleanUpRecycledResources(context);
+		SatMetrics.end(SatMetrics.COLLIDE_2D, context.callStats, collision);
+		return collision;
+	}
+
+	/**
+	 * Headless SAT on 2D polygons with a minimum translation vector. This is the same test as
+	 * PolygonCollide_2D_mtv, but it has no rendering and returns as soon as a separating axis is
+	 * found.
+	 * 
+	 * @param obj1Vertices
+	 * @param obj2Vertices
+	 * @param mtvBuffer receives the vector that moves obj1 out of obj2; set to zero if there is no
+	 *            collision.
+	 * @return true if the polygons overlap.
+	 */
+	public static boolean PolygonCollide_2D_mtv(float[] obj1Vertices, float[] obj2Vertices, Vector2 mtvBuffer)
+	{
+		return PolygonCollide_2D_mtv(sharedContext, obj1Vertices, obj2Vertices, mtvBuffer);
+	}
+
+	/**
+	 * PolygonCollide_2D_mtv using the given context for scratch space instead of the shared one.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 */
+	public static boolean PolygonCollide_2D_mtv(SatContext2D context, float[] obj1Vertices, float[] obj2Vertices, Vector2 mtvBuffer)
+	{
+		SatMetrics.begin(context.callStats);
+		segmentize(context, obj1Vertices, context.obj1Vectors);
+		segmentize(context, obj2Vertices, context.obj2Vectors);
+		convertSegmentsToNormals(context.obj1Vectors);
+		convertSegmentsToNormals(context.obj2Vectors);
+
+		mtvBuffer.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+		boolean collision = minimumTranslation(context, obj1Vertices, obj2Vertices, context.obj1Vectors, mtvBuffer) && minimumTranslation(context, obj1Vertices, obj2Vertices, context.obj2Vectors, mtvBuffer);
+		if (!collision)
+		{
+			mtvBuffer.set(0, 0);
+		}
+
+		cleanUpRecycledResources(context);
+		SatMetrics.end(SatMetrics.MTV_2D, context.callStats, collision);
+		return collision;
+	}
+
+	/**
+	 * Headless SAT on two convex polygons. The axes are the polygons' cached unit edge normals, so
+	 * no segments are built and no normals are derived per call. Each polygon's axes are already
+	 * free of parallel duplicates; an axis of obj2 that happens to be parallel to one of obj1 is
+	 * simply tested again, which is cheaper than looking for it among obj1's axes every call.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 * @param obj1
+	 * @param obj2
+	 * @return true if the polygons overlap.
+	 */
+	public static boolean PolygonCollide_2D(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2)
+	{
+		SatMetrics.begin(context.callStats);
+		context.separatingAxis = -1;
+		boolean collision = noSeparatingAxis(context, obj1, obj2, obj1.getWorldAxes(), obj1.getAxisCount(), 0)
+				&& noSeparatingAxis(context, obj1, obj2, obj2.getWorldAxes(), obj2.getAxisCount(), obj1.getAxisCount());
+		SatMetrics.end(SatMetrics.CONVEX_COLLIDE_2D, context.callStats, collision);
+		return collision;
+	}
+
+	/**
+	 * Headless SAT on two convex polygons with a minimum translation vector. See
+	 * {@link #PolygonCollide_2D(SatContext2D, ConvexPolygon2D, ConvexPolygon2D)}.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 * @param obj1
+	 * @param obj2
+	 * @param mtvBuffer receives the vector that moves obj1 out of obj2; set to zero if there is no
+	 *            collision.
+	 * @return true if the polygons overlap.
+	 */
+	public static boolean PolygonCollide_2D_mtv(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2, Vector2 mtvBuffer)
+	{
+		SatMetrics.begin(context.callStats);
+		context.separatingAxis = -1;
+
+		mtvBuffer.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+		boolean collision = minimumTranslation(context, obj1, obj2, obj1.getWorldAxes(), obj1.getAxisCount(), 0, mtvBuffer)
+				&& minimumTranslation(context, obj1, obj2, obj2.getWorldAxes(), obj2.getAxisCount(), obj1.getAxisCount(), mtvBuffer);
+		if (!collision)
+		{
+			mtvBuffer.set(0, 0);
+		}
+		SatMetrics.end(SatMetrics.CONVEX_MTV_2D, context.callStats, collision);
 		return collision;
 	}
+
+	/**
+	 * Headless SAT on two convex polygons that also reports where they touch. The contact normal is
+	 * the axis of least penetration found while computing the MTV, so this costs one
+	 * {@link #PolygonCollide_2D_mtv(SatContext2D, ConvexPolygon2D, ConvexPolygon2D, Vector2)} plus
+	 * clipping one edge against another.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 * @param obj1
+	 * @param obj2
+	 * @param manifold receives the normal (from obj1 towards obj2), depth, MTV and up to two contact
+	 *            points; cleared if there is no collision.
+	 * @return true if the polygons overlap.
+	 */
+	public static boolean PolygonCollide_2D_manifold(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2, ContactManifold2D manifold)
+	{
+		if (!PolygonCollide_2D_mtv(context, obj1, obj2, context.tempBuffer))
+		{
+			manifold.clear();
+			return false;
+		}
+		manifold.build(obj1, obj2, context.tempBuffer);
+		return true;
+	}
+
+	/**
+	 * Swept SAT on two convex polygons. Finds the first time during a tick at which obj1, moving by
+	 * displacement relative to obj2, touches obj2. A fast body tested this way cannot tunnel through
+	 * a thin wall, so only fast bodies need the swept test instead of the whole world being
+	 * substepped.
+	 *
+	 * Along each axis the two projections are intervals, and obj1's interval slides at
+	 * (displacement DOT axis) per tick. Each axis gives the span of time its intervals overlap; the
+	 * polygons touch when every axis overlaps, i.e. from the latest entry time to the earliest exit
+	 * time. In 2D the edge normals of both polygons are enough axes, as they are the edge normals of
+	 * the swept shape. Rotation during the tick is not accounted for.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 * @param obj1 the moving polygon, at its pose at the start of the tick.
+	 * @param obj2
+	 * @param displacement how far obj1 moves relative to obj2 over the tick, i.e. relative velocity
+	 *            times the tick length.
+	 * @param sweep receives the time of impact as a fraction of the tick, in [0, 1], and the impact
+	 *            normal (from obj1 towards obj2). If the polygons already overlap the time is 0 and
+	 *            the normal is the direction of least penetration.
+	 * @return true if the polygons touch at some point during the tick.
+	 */
+	public static boolean PolygonCollide_2D_swept(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2, Vector2 displacement, Sweep2D sweep)
+	{
+		SatMetrics.begin(context.callStats);
+
+		sweep.reset();
+		boolean collision = sweepAxes(context, obj1, obj2, obj1.getWorldAxes(), obj1.getAxisCount(), displacement, sweep)
+				&& sweepAxes(context, obj1, obj2, obj2.getWorldAxes(), obj2.getAxisCount(), displacement, sweep)
+				&& sweep.time <= 1;
+		if (collision)
+		{
+			if (sweep.time == Float.NEGATIVE_INFINITY)
+			{
+				// overlapping on every axis from the start
+				sweep.time = 0;
+				sweep.normal.set(sweep.overlapNormal);
+			}
+		}
+		else
+		{
+			sweep.time = 1;
+			sweep.normal.set(0, 0);
+		}
+		SatMetrics.end(SatMetrics.SWEPT_2D, context.callStats, collision);
+		return collision;
+	}
+
+	/**
+	 * Narrows the sweep's time of impact window with every axis.
+	 *
+	 * @param axes axis vectors as x,y pairs.
+	 * @return false as soon as an axis shows the polygons never touch during the tick.
+	 */
+	private static boolean sweepAxes(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2, float[] axes, int axisCount, Vector2 displacement,
+			Sweep2D sweep)
+	{
+		for (int i = 0; i < axisCount * 2; i += 2)
+		{
+			float axisX = axes[i];
+			float axisY = axes[i + 1];
+			project(obj1, obj2, axisX, axisY, context.projection);
+			Projection p = context.projection;
+			float speed = dot2D(displacement.x, displacement.y, axisX, axisY);
+
+			float enter, exit;
+			if (p.obj1Max < p.obj2Min)
+			{
+				// obj1 is below obj2 on this axis, it has to move up to reach it
+				if (speed <= 0)
+				{
+					SatMetrics.axisTested(context.callStats, false);
+					return false;
+				}
+				enter = (p.obj2Min - p.obj1Max) / speed;
+				exit = (p.obj2Max - p.obj1Min) / speed;
+				if (enter > sweep.time)
+				{
+					sweep.normal.set(axisX, axisY);
+				}
+			}
+			else if (p.obj1Min > p.obj2Max)
+			{
+				// obj1 is above obj2 on this axis, it has to move down to reach it
+				if (speed >= 0)
+				{
+					SatMetrics.axisTested(context.callStats, false);
+					return false;
+				}
+				enter = (p.obj2Max - p.obj1Min) / speed;
+				exit = (p.obj2Min - p.obj1Max) / speed;
+				if (enter > sweep.time)
+				{
+					sweep.normal.set(-axisX, -axisY);
+				}
+			}
+			else
+			{
+				// already overlapping on this axis; remember the least penetration in case every axis is
+				enter = Float.NEGATIVE_INFINITY;
+				exit = speed > 0 ? (p.obj2Max - p.obj1Min) / speed : speed < 0 ? (p.obj2Min - p.obj1Max) / speed : Float.POSITIVE_INFINITY;
+				float C = translationScalar(p);
+				if (Math.abs(C) < sweep.overlapDepth)
+				{
+					// the MTV pushes obj1 along C * axis, so obj2 lies the other way
+					sweep.overlapDepth = Math.abs(C);
+					sweep.overlapNormal.set(axisX, axisY).scl(C > 0 ? -1 : 1);
+				}
+			}
+
+			sweep.time = Math.max(sweep.time, enter);
+			sweep.exitTime = Math.min(sweep.exitTime, exit);
+			boolean overlap = sweep.time <= sweep.exitTime && sweep.time <= 1 && sweep.exitTime >= 0;
+			SatMetrics.axisTested(context.callStats, overlap);
+			if (!overlap)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests every axis until one separates the objects.
+	 * 
+	 * @param axes axis vectors as x,y pairs.
+	 * @param firstAxis the index of axes[0] among all of the pair's axes, for context.separatingAxis;
+	 *            obj2's axes are tested after obj1's, so they start at obj1's axis count.
+	 * @return false as soon as a separating axis is found.
+	 */
+	private static boolean noSeparatingAxis(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2, float[] axes, int axisCount, int firstAxis)
+	{
+		for (int i = 0; i < axisCount * 2; i += 2)
+		{
+			project(obj1, obj2, axes[i], axes[i + 1], context.projection);
+			boolean overlap = overlaps(context.projection);
+			SatMetrics.axisTested(context.callStats, overlap);
+			if (!overlap)
+			{
+				context.separatingAxis = firstAxis + i / 2;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests every axis until one separates the objects, keeping the smallest translation vector in
+	 * mtvBuffer.
+	 * 
+	 * @param axes axis vectors as x,y pairs.
+	 * @param firstAxis the index of axes[0] among all of the pair's axes, for context.separatingAxis;
+	 *            obj2's axes are tested after obj1's, so they start at obj1's axis count.
+	 * @return false as soon as a separating axis is found.
+	 */
+	private static boolean minimumTranslation(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2, float[] axes, int axisCount, int firstAxis, Vector2 mtvBuffer)
+	{
+		float minimumLen2 = mtvBuffer.len2();
+		for (int i = 0; i < axisCount * 2; i += 2)
+		{
+			project(obj1, obj2, axes[i], axes[i + 1], context.projection);
+			boolean overlap = overlaps(context.projection);
+			SatMetrics.axisTested(context.callStats, overlap);
+			if (!overlap)
+			{
+				context.separatingAxis = firstAxis + i / 2;
+				return false;
+			}
+			// compare squared lengths; |C * axis|^2 = C^2 * (axis DOT axis)
+			float C = translationScalar(context.projection);
+			float axisLen2 = dot2D(axes[i], axes[i + 1], axes[i], axes[i + 1]);
+			float translationLen2 = C * C * axisLen2;
+			if (translationLen2 < minimumLen2)
+			{
+				minimumLen2 = translationLen2;
+				mtvBuffer.set(axes[i] * C, axes[i + 1] * C);
+				context.mtvAxisLen2 = axisLen2;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests every axis until one separates the objects.
+	 * 
+	 * @return false as soon as a separating axis is found.
+	 */
+	private static boolean noSeparatingAxis(SatContext2D context, float[] obj1Vertices, float[] obj2Vertices, ArrayList<Segment2D> axes)
+	{
+		for (int i = 0; i < axes.size(); ++i)
+		{
+			Segment2D axis = axes.get(i);
+			project(obj1Vertices, obj2Vertices, axis.firstVertX, axis.firstVertY, context.projection);
+			boolean overlap = overlaps(context.projection);
+			SatMetrics.axisTested(context.callStats, overlap);
+			if (!overlap)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Tests every axis until one separates the objects, keeping the smallest translation vector in
+	 * mtvBuffer.
+	 * 
+	 * @return false as soon as a separating axis is found.
+	 */
+	private static boolean minimumTranslation(SatContext2D context, float[] obj1Vertices, float[] obj2Vertices, ArrayList<Segment2D> axes, Vector2 mtvBuffer)
+	{
+		float minimumLen2 = mtvBuffer.len2();
+		for (int i = 0; i < axes.size(); ++i)
+		{
+			Segment2D axis = axes.get(i);
+			project(obj1Vertices, obj2Vertices, axis.firstVertX, axis.firstVertY, context.projection);
+			boolean overlap = overlaps(context.projection);
+			SatMetrics.axisTested(context.callStats, overlap);
+			if (!overlap)
+			{
+				return false;
+			}
+			// compare squared lengths; |C * axis|^2 = C^2 * (axis DOT axis)
+			float C = translationScalar(context.projection);
+			float axisLen2 = dot2D(axis.firstVertX, axis.firstVertY, axis.firstVertX, axis.firstVertY);
+			float translationLen2 = C * C * axisLen2;
+			if (translationLen2 < minimumLen2)
+			{
+				minimumLen2 = translationLen2;
+				mtvBuffer.set(axis.firstVertX * C, axis.firstVertY * C);
+				context.mtvAxisLen2 = axisLen2;
+			}
+		}
+		return true;
+	}
 	
+	/**
+	 * Two vectors are parallel if the sine of the angle between them is within the tolerance. Since
+	 * |a x b| = |a||b|sin(angle), this can be checked with squared lengths and no square roots. The
+	 * sign of the vectors does not matter.
+	 */
+	static boolean isParallel(float x1, float y1, float x2, float y2)
+	{
+		float cross = x1 * y2 - y1 * x2;
+		return cross * cross <= parallelTolerance * parallelTolerance * dot2D(x1, y1, x1, y1) * dot2D(x2, y2, x2, y2);
+	}
+
 	private static void renderAxes(RenderInformation2D renderInfo, ArrayList<Segment2D> normals, float offsetX, float offsetY, Color axisColor)
 	{
 		// float offset = Gdx.graphics.getWidth() / 2;
 		float scale = 100;
 
-		ShapeRenderer sRenderer = renderInfo.shapeRenderer;
-
-		sRenderer.begin(ShapeType.Line);
-		sRenderer.setColor(axisColor);
-
+		DebugDrawBuffer debugDraw = renderInfo.debugDraw;
 		for (Segment2D segment : normals)
 		{
 			Segment2D axis = segment;
-			sRenderer.line(-scale * axis.firstVertX + offsetX, -scale * axis.secondVertY + offsetY, scale * axis.firstVertX + offsetX, scale * axis.secondVertY + offsetY);
+			debugDraw.line(-scale * axis.firstVertX + offsetX, -scale * axis.secondVertY + offsetY, scale * axis.firstVertX + offsetX, scale * axis.secondVertY + offsetY, axisColor);
 		}
-		sRenderer.end();
-		sRenderer.setColor(renderInfo.defaultColor);
 	}
 
 	/**
@@ -94,11 +500,11 @@ public class SAT
 	 * @param objVertices
 	 * @param segmentContainer a container that contains all of an objects 2D segments.
 	 */
-	private static void segmentize(float[] objVertices, ArrayList<Segment2D> segmentContainer)
+	private static void segmentize(SatContext2D context, float[] objVertices, ArrayList<Segment2D> segmentContainer)
 	{
 		for (int i = 0; i < objVertices.length; i += 2)
 		{
-			Segment2D segment = getNewSegment();
+			Segment2D segment = getNewSegment(context);
 			segment.firstVertX = objVertices[i];
 			segment.firstVertY = objVertices[i + 1];
 			if (i + 2 < objVertices.length)
@@ -168,12 +574,31 @@ public class SAT
 		}
 	}
 
-	private static boolean projectionOverlap(float[] obj1Vertices, float[] obj2Vertices, Segment2D axis, RenderInformation2D rendInfo)
+	private static boolean projectionOverlap(SatContext2D context, float[] obj1Vertices, float[] obj2Vertices, Segment2D axis, RenderInformation2D rendInfo)
+	{
+		project(obj1Vertices, obj2Vertices, axis.firstVertX, axis.firstVertY, context.projection);
+
+		if (rendInfo != null) renderProjections(rendInfo, axis, context.projection.obj1Min, context.projection.obj1Max, context.projection.obj2Min, context.projection.obj2Max);
+
+		return overlaps(context.projection);
+	}
+
+	/**
+	 * Projects the vertices of both objects onto an axis. This is shared by the rendering and the
+	 * headless versions of the algorithm so that they always agree.
+	 * 
+	 * @param obj1Vertices
+	 * @param obj2Vertices
+	 * @param axisX
+	 * @param axisY
+	 * @param out receives the min/max projection scalars of both objects.
+	 */
+	private static void project(float[] obj1Vertices, float[] obj2Vertices, float axisX, float axisY, Projection out)
 	{
 		float obj1Min = Float.POSITIVE_INFINITY, obj2Min = Float.POSITIVE_INFINITY;
 		float obj1Max = Float.NEGATIVE_INFINITY, obj2Max = Float.NEGATIVE_INFINITY;
 
-		float vDotV = dot2D(axis.firstVertX, axis.firstVertY, axis.firstVertX, axis.firstVertY);
+		float vDotV = dot2D(axisX, axisY, axisX, axisY);
 		for (int i = 0; i < obj1Vertices.length; i += 2)
 		{
 
@@ -200,14 +625,9 @@ public class SAT
 			// (shadowCastingVector DOT V) / (V DOT V) = C
 			//
 			//
-			float C = dot2D(obj1Vertices[i], obj1Vertices[i + 1], axis.firstVertX, axis.firstVertY) / vDotV;
-
-			// float projX = 0, projY = 0;
-			// projX = C * axis.firstVertX;
-			// projY = C * axis.secondVertY;
+			float C = dot2D(obj1Vertices[i], obj1Vertices[i + 1], axisX, axisY) / vDotV;
 
-			// float projMagnitude = (float) Math.sqrt(Math.pow(projX, 2) + Math.pow(projY, 2)); I
-			// think we can just compare C to determine min/max of project
+			// I think we can just compare C to determine min/max of project
 			if (C < obj1Min)
 			{
 				obj1Min = C;
@@ -219,13 +639,7 @@ public class SAT
 		}
 		for (int i = 0; i < obj2Vertices.length; i += 2)
 		{
-			float C = dot2D(obj2Vertices[i], obj2Vertices[i + 1], axis.firstVertX, axis.firstVertY) / vDotV;
-			// float projX = 0, projY = 0;
-			// projX = C * axis.firstVertX;
-			// projY = C * axis.secondVertY;
-
-			// float projMagnitude = (float) Math.sqrt(Math.pow(projX, 2) + Math.pow(projY, 2)); I
-			// think we can just compare C to determine min/max of project
+			float C = dot2D(obj2Vertices[i], obj2Vertices[i + 1], axisX, axisY) / vDotV;
 			if (C < obj2Min)
 			{
 				obj2Min = C;
@@ -236,8 +650,50 @@ public class SAT
 			}
 		}
 
-		if (rendInfo != null) renderProjections(rendInfo, axis, obj1Min, obj1Max, obj2Min, obj2Max);
+		out.obj1Min = obj1Min;
+		out.obj1Max = obj1Max;
+		out.obj2Min = obj2Min;
+		out.obj2Max = obj2Max;
+	}
+
+	/**
+	 * Projects two convex polygons onto an axis. Polygons with at least
+	 * {@link ConvexPolygon2D#hillClimbThreshold} vertices find their extreme vertices by hill climbing
+	 * from the last ones found instead of scanning every vertex.
+	 */
+	private static void project(ConvexPolygon2D obj1, ConvexPolygon2D obj2, float axisX, float axisY, Projection out)
+	{
+		int threshold = ConvexPolygon2D.hillClimbThreshold;
+		if (obj1.getEdgeCount() < threshold && obj2.getEdgeCount() < threshold)
+		{
+			project(obj1.getWorldVertices(), obj2.getWorldVertices(), axisX, axisY, out);
+			return;
+		}
+		float vDotV = dot2D(axisX, axisY, axisX, axisY);
+		out.obj1Min = obj1.minProjection(axisX, axisY) / vDotV;
+		out.obj1Max = obj1.maxProjection(axisX, axisY) / vDotV;
+		out.obj2Min = obj2.minProjection(axisX, axisY) / vDotV;
+		out.obj2Max = obj2.maxProjection(axisX, axisY) / vDotV;
+	}
+
+	/**
+	 * Projects both objects onto a single axis.
+	 * 
+	 * @return true if the axis separates the objects.
+	 */
+	static boolean separates(SatContext2D context, ConvexPolygon2D obj1, ConvexPolygon2D obj2, float axisX, float axisY)
+	{
+		project(obj1, obj2, axisX, axisY, context.projection);
+		return !overlaps(context.projection);
+	}
+
+	private static boolean overlaps(Projection p)
+	{
+		return overlaps(p.obj1Min, p.obj1Max, p.obj2Min, p.obj2Max);
+	}
 
+	static boolean overlaps(float obj1Min, float obj1Max, float obj2Min, float obj2Max)
+	{
 		//@formatter:off
 		//Imagine the objMin/Max ranges as being segments on a the X-axis.
 		//in reality, they represent scalars to multiply against the true axis. 
@@ -249,19 +705,30 @@ public class SAT
 		//@formatter:on
 	}
 	
-	public static Vector2 tempBuffer = new Vector2();
 	public static boolean PolygonCollide_2D_mtv(RenderInformation2D renderInfo, float[] obj1Vertices, float[] obj2Vertices, Vector2 mtvBuffer)
 	{
+		return PolygonCollide_2D_mtv(sharedContext, renderInfo, obj1Vertices, obj2Vertices, mtvBuffer);
+	}
+
+	/**
+	 * PolygonCollide_2D_mtv using the given context for scratch space instead of the shared one.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 */
+	public static boolean PolygonCollide_2D_mtv(SatContext2D context, RenderInformation2D renderInfo, float[] obj1Vertices, float[] obj2Vertices, Vector2 mtvBuffer)
+	{
+		SatMetrics.begin(context.callStats);
+
 		// determine normal vectors, these will be the axes
-		segmentize(obj1Vertices, obj1Vectors);
-		segmentize(obj2Vertices, obj2Vectors);
-		convertSegmentsToNormals(obj1Vectors);
-		convertSegmentsToNormals(obj2Vectors);
+		segmentize(context, obj1Vertices, context.obj1Vectors);
+		segmentize(context, obj2Vertices, context.obj2Vectors);
+		convertSegmentsToNormals(context.obj1Vectors);
+		convertSegmentsToNormals(context.obj2Vectors);
 
 		if (renderInfo != null)
 		{
-			renderAxes(renderInfo, obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
-			renderAxes(renderInfo, obj2Vectors, 0, 0, renderInfo.axisColorObj2);
+			renderAxes(renderInfo, context.obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
+			renderAxes(renderInfo, context.obj2Vectors, 0, 0, renderInfo.axisColorObj2);
 		}
 
 		mtvBuffer.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
@@ -270,173 +737,72 @@ public class SAT
 		// NOTE: boolean redundant checks because this method draws the projections, must check
 		// every projection to draw it.
 		boolean collision = true;
-		for (Segment2D axis : obj1Vectors)
+		for (int i = 0; i < context.obj1Vectors.size(); ++i)
 		{
+			Segment2D axis = context.obj1Vectors.get(i);
 			// test whether projections overlap.
 			// if there is a non-overlapping projection, there cannot be a collision.
-			collision &= projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, renderInfo, tempBuffer);
-			float magnitudeOfBuffer = vect1IsMinimumMagnitude(tempBuffer, mtvBuffer);
-			//zero signals the new translation vector is not smaller than last. 
-			if(magnitudeOfBuffer != 0)
+			boolean overlap = projectionOverlap_MTV(context, obj1Vertices, obj2Vertices, axis, renderInfo, context.tempBuffer);
+			SatMetrics.axisTested(context.callStats, overlap);
+			collision &= overlap;
+			if (isShorter(context.tempBuffer, mtvBuffer))
 			{
-				mtvBuffer.set(tempBuffer);
+				mtvBuffer.set(context.tempBuffer);
+				context.mtvAxisLen2 = dot2D(axis.firstVertX, axis.firstVertY, axis.firstVertX, axis.firstVertY);
 			}
 		}
-		for (Segment2D axis : obj2Vectors)
+		for (int i = 0; i < context.obj2Vectors.size(); ++i)
 		{
-			collision &= projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, renderInfo, tempBuffer);
-			float magnitudeOfBuffer = vect1IsMinimumMagnitude(tempBuffer, mtvBuffer);
-			if(magnitudeOfBuffer != 0)
+			Segment2D axis = context.obj2Vectors.get(i);
+			boolean overlap = projectionOverlap_MTV(context, obj1Vertices, obj2Vertices, axis, renderInfo, context.tempBuffer);
+			SatMetrics.axisTested(context.callStats, overlap);
+			collision &= overlap;
+			if (isShorter(context.tempBuffer, mtvBuffer))
 			{
-				mtvBuffer.set(tempBuffer);
+				mtvBuffer.set(context.tempBuffer);
+				context.mtvAxisLen2 = dot2D(axis.firstVertX, axis.firstVertY, axis.firstVertX, axis.firstVertY);
 			}
 		}
+		if (collision && renderInfo != null)
+		{
+			renderMTV(renderInfo, mtvBuffer);
+		}
 
 		// clean up resources
-		cleanUpRecycledResources();
+		cleanUpRecycledResources(context);
+		SatMetrics.end(SatMetrics.MTV_DEBUG_2D, context.callStats, collision);
 		return collision;
 	}
 	
-	private static float vect1IsMinimumMagnitude(Vector2 vect1, Vector2 vect2)
-	{
-		float pnt1Length = pythagorean(vect1);
-		float pnt2Length = pythagorean(vect2);
-		
-		if(pnt1Length < pnt2Length)
-		{
-			return pnt1Length;
-		}
-		//signals false, use int return types to allow use of non-zero returns to update length.
-		return 0f;
-	}
-
-	private static float pythagorean(Vector2 pnt1)
+	/**
+	 * Squared lengths order the same way lengths do, so the shorter vector can be found without a
+	 * square root.
+	 */
+	private static boolean isShorter(Vector2 vect1, Vector2 vect2)
 	{
-		return (float) Math.sqrt(Math.pow(pnt1.x, 2) + Math.pow(pnt1.y, 2));
+		return vect1.len2() < vect2.len2();
 	}
 
 	public static float constantOffset = 0.001f;
-	private static boolean projectionOverlap_MTV(float[] obj1Vertices, float[] obj2Vertices, Segment2D axis, RenderInformation2D rendInfo, Vector2 mtv)
+
+	/**
+	 * Sine of the largest angle between two axes that are still treated as parallel.
+	 */
+	public static float parallelTolerance = 0.001f;
+	private static boolean projectionOverlap_MTV(SatContext2D context, float[] obj1Vertices, float[] obj2Vertices, Segment2D axis, RenderInformation2D rendInfo, Vector2 mtv)
 	{
-		float obj1Min = Float.POSITIVE_INFINITY, obj2Min = Float.POSITIVE_INFINITY;
-		float obj1Max = Float.NEGATIVE_INFINITY, obj2Max = Float.NEGATIVE_INFINITY;
+		project(obj1Vertices, obj2Vertices, axis.firstVertX, axis.firstVertY, context.projection);
 
-		float vDotV = dot2D(axis.firstVertX, axis.firstVertY, axis.firstVertX, axis.firstVertY);
-		for (int i = 0; i < obj1Vertices.length; i += 2)
-		{
+		if (rendInfo != null) renderProjections(rendInfo, axis, context.projection.obj1Min, context.projection.obj1Max, context.projection.obj2Min, context.projection.obj2Max);
 
-			// line can be interpreted as C*(vector_on_line).
-			// the projection on the line/axis, can be said to be a specific value of C*vector.
-			// A right triangle can be made between the axis vector (which is mult by C) and the
-			// vector we're projecting onto the axis.
-			// The base of the triangle (ie the axis) and the height (ie the base -
-			// projected_vector) are orthogonal to each other, this means their dot is 0.
-			// However, we don't know the height of the triangle. But it can be said to be the
-			// vector difference of the projection vector with the axis vector.
-			// ie projectionVector - axis vector.
-			// We derive the following equation: (projected - c*v) DOT (V) = 0 -- where projected is
-			// the original vector, c*v is vector projected onto the axis, and v is the vector defining the axis
-			// The following is an algebraic manipulation for solving for C.
-			// (projectedVect -c*v) DOT (V) = 0
-			// (projectedVect DOT V) - (c*V DOT V) = 0
-			// (projectedVect DOT V) = -(c*V DOT V)
-			// (projectedVect DOT V) / (V DOT V) = C
-			float C = dot2D(obj1Vertices[i], obj1Vertices[i + 1], axis.firstVertX, axis.firstVertY) / vDotV;
-
-			// float projX = 0, projY = 0;
-			// projX = C * axis.firstVertX;
-			// projY = C * axis.secondVertY;
-
-			// float projMagnitude = (float) Math.sqrt(Math.pow(projX, 2) + Math.pow(projY, 2)); I
-			// think we can just compare C to determine min/max of project
-			if (C < obj1Min)
-			{
-				obj1Min = C;
-			}
-			if (C > obj1Max)
-			{
-				obj1Max = C;
-			}
-		}
-		for (int i = 0; i < obj2Vertices.length; i += 2)
+		if (overlaps(context.projection))
 		{
-			float C = dot2D(obj2Vertices[i], obj2Vertices[i + 1], axis.firstVertX, axis.firstVertY) / vDotV;
-			// float projX = 0, projY = 0;
-			// projX = C * axis.firstVertX;
-			// projY = C * axis.secondVertY;
-
-			// float projMagnitude = (float) Math.sqrt(Math.pow(projX, 2) + Math.pow(projY, 2)); I
-			// think we can just compare C to determine min/max of project
-			if (C < obj2Min)
-			{
-				obj2Min = C;
-			}
-			if (C > obj2Max)
-			{
-				obj2Max = C;
-			}
-		}
-
-		if (rendInfo != null) renderProjections(rendInfo, axis, obj1Min, obj1Max, obj2Min, obj2Max);
-
-		//@formatter:off
-		//Imagine the objMin/Max ranges as being segments on a the X-axis.
-		//in reality, they represent scalars to multiply against the true axis. 
-		boolean obj1MaxOverlapsObj2Min = obj1Max >= obj2Min && obj1Min <= obj2Min;
-		boolean obj2MaxOverlapsObj1Min = obj2Max >= obj1Min && obj2Min <= obj1Min;
-		boolean obj1ContainsObj2 = obj1Max >= obj2Max && obj2Min >= obj1Min;
-		boolean obj2ContainsObj1 = obj2Max >= obj1Max && obj1Min >= obj2Min;
-		
-		if ((obj1MaxOverlapsObj2Min) // overlap at obj1max and obj2min
-				|| (obj2MaxOverlapsObj1Min) // overlap at obj2max and obj1min
-				|| (obj1ContainsObj2) // 1 contains 2
-				|| (obj2ContainsObj1) // 2 contains 1
-				)
-		{ //@formatter:on
 			//the above assumes obj1 is the moving object.
 			if(mtv != null)
 			{
-				//Correct obj1's position with a translation vector. This will be the vector to remove obj1 from collision
-				//The translation vector to correct collision will be along this axis.
-				//therefore, we need to find a constant to multiply the axis by to find the translation vector. 
-				float C = 1; //this is the constant by which to modify the axis vector
-				if(obj1MaxOverlapsObj2Min)
-				{
-					//need vector to point towards minimum of obj2; as if obj1 bumped into obj1
-					C = obj2Min - obj1Max;
-				}
-				else if (obj2MaxOverlapsObj1Min)
-				{
-					//vector should point point towards obj2 max; as if obj1 "backed" into obj2
-					C = obj2Max - obj1Min;
-				}
-				else //if (obj1ContainsObj2 || obj2ContainsObj1) //turns out logic is the same for both cases. 
-				{
-					//unclear which direction to move obj1 without having a reference from where obj1 is moving.
-					//assume segment vertices that are closest represent direction coming from. 
-					//<with the translation vector that lead to condition, we could find direction to correct with>
-					if(Math.abs(obj1Max - obj2Max) > Math.abs(obj1Min - obj2Min))
-					{
-						//move in direction of max
-						//must move obj1's min passed obj2's max
-						C = obj2Max - obj1Min;
-					}
-					else
-					{
-						//move in direction of min
-						//move obj1's max passed obj2's min
-						C = obj2Min - obj1Max;
-					}
-				}
-				
-				//this gives the vector a slight *nudge*. 
-				//bug occured where there would be 2 MTVs used in 2 iterations. 1 moved the MTV
-				//this is related to using > vs. >= when comparing projections. While doing >
-				//fixes a sudden large move, it doesn't appear as smooth as adding a small nudge.
-				C = C > 0 ? C + constantOffset : C - constantOffset; //branching does have a potential slowdown w/ mispredictions; tradeoff: looks(jittery) vs. speed 
-				
 				//take difference of segments, use difference to determine overlap
 				//use overlap to construct a vector. Vector should affect object 1
+				float C = translationScalar(context.projection);
 				mtv.y = axis.firstVertY * C;
 				mtv.x = axis.firstVertX * C;
 			}
@@ -445,52 +811,104 @@ public class SAT
 		return false;
 	}
 
+	/**
+	 * Finds the constant to multiply an axis by to get the translation vector that removes obj1 from
+	 * collision. Only meaningful when the projections overlap.
+	 * 
+	 * @param p overlapping projections on the axis.
+	 * @return the scalar to multiply against the axis.
+	 */
+	private static float translationScalar(Projection p)
+	{
+		return translationScalar(p.obj1Min, p.obj1Max, p.obj2Min, p.obj2Max);
+	}
+
+	static float translationScalar(float obj1Min, float obj1Max, float obj2Min, float obj2Max)
+	{
+		//Correct obj1's position with a translation vector. This will be the vector to remove obj1 from collision
+		//The translation vector to correct collision will be along this axis.
+		//therefore, we need to find a constant to multiply the axis by to find the translation vector. 
+		float C = 1; //this is the constant by which to modify the axis vector
+		if (obj1Max >= obj2Min && obj1Min <= obj2Min)
+		{
+			//need vector to point towards minimum of obj2; as if obj1 bumped into obj1
+			C = obj2Min - obj1Max;
+		}
+		else if (obj2Max >= obj1Min && obj2Min <= obj1Min)
+		{
+			//vector should point point towards obj2 max; as if obj1 "backed" into obj2
+			C = obj2Max - obj1Min;
+		}
+		else //if (obj1ContainsObj2 || obj2ContainsObj1) //turns out logic is the same for both cases. 
+		{
+			//unclear which direction to move obj1 without having a reference from where obj1 is moving.
+			//assume segment vertices that are closest represent direction coming from. 
+			//<with the translation vector that lead to condition, we could find direction to correct with>
+			if(Math.abs(obj1Max - obj2Max) > Math.abs(obj1Min - obj2Min))
+			{
+				//move in direction of max
+				//must move obj1's min passed obj2's max
+				C = obj2Max - obj1Min;
+			}
+			else
+			{
+				//move in direction of min
+				//move obj1's max passed obj2's min
+				C = obj2Min - obj1Max;
+			}
+		}
+		
+		//this gives the vector a slight *nudge*. 
+		//bug occured where there would be 2 MTVs used in 2 iterations. 1 moved the MTV
+		//this is related to using > vs. >= when comparing projections. While doing >
+		//fixes a sudden large move, it doesn't appear as smooth as adding a small nudge.
+		return C > 0 ? C + constantOffset : C - constantOffset; //branching does have a potential slowdown w/ mispredictions; tradeoff: looks(jittery) vs. speed 
+	}
+
 
 	private static void renderProjections(RenderInformation2D rendInfo, Segment2D axis, float obj1Min, float obj1Max, float obj2Min, float obj2Max)
 	{
-		ShapeRenderer sr = rendInfo.shapeRenderer;
+		DebugDrawBuffer debugDraw = rendInfo.debugDraw;
 
 		float obj1MaxX = obj1Max * axis.firstVertX;
 		float obj1MinX = obj1Min * axis.firstVertX;
 		float obj1MaxY = obj1Max * axis.firstVertY;
 		float obj1MinY = obj1Min * axis.firstVertY;
-
-		sr.begin(ShapeType.Line);
-		sr.setColor(rendInfo.obj1Color);
-		sr.line(obj1MinX, obj1MinY, obj1MaxX, obj1MaxY);
-		sr.setColor(rendInfo.defaultColor);
-		sr.end();
+		debugDraw.line(obj1MinX, obj1MinY, obj1MaxX, obj1MaxY, rendInfo.obj1Color);
 
 		float obj2MaxX = obj2Max * axis.firstVertX;
 		float obj2MinX = obj2Min * axis.firstVertX;
 		float obj2MaxY = obj2Max * axis.firstVertY;
 		float obj2MinY = obj2Min * axis.firstVertY;
+		debugDraw.line(obj2MinX, obj2MinY, obj2MaxX, obj2MaxY, rendInfo.obj2Color);
+	}
 
-		sr.begin(ShapeType.Line);
-		sr.setColor(rendInfo.obj2Color);
-		sr.line(obj2MinX, obj2MinY, obj2MaxX, obj2MaxY);
-		sr.setColor(rendInfo.defaultColor);
-		sr.end();
-
+	/**
+	 * Draws the MTV as a line from obj1's center to where the MTV moves it.
+	 */
+	private static void renderMTV(RenderInformation2D rendInfo, Vector2 mtv)
+	{
+		Vector2 center = rendInfo.obj1Center;
+		rendInfo.debugDraw.line(center.x, center.y, center.x + mtv.x, center.y + mtv.y, rendInfo.mtvColor);
 	}
 
 	/**
-	 * Returns all used segments to the static scope global recycled container. Clears out the array
+	 * Returns all used segments to the context's recycled container. Clears out the array
 	 * that stores segments. This helps by preventing new object allocation every time the SAT
 	 * algorithm is called.
 	 */
-	private static void cleanUpRecycledResources()
+	private static void cleanUpRecycledResources(SatContext2D context)
 	{
-		for (Segment2D segment : obj1Vectors)
+		for (int i = 0; i < context.obj1Vectors.size(); ++i)
 		{
-			recycleSegment(segment);
+			recycleSegment(context, context.obj1Vectors.get(i));
 		}
-		for (Segment2D segment : obj2Vectors)
+		for (int i = 0; i < context.obj2Vectors.size(); ++i)
 		{
-			recycleSegment(segment);
+			recycleSegment(context, context.obj2Vectors.get(i));
 		}
-		obj1Vectors.clear();
-		obj2Vectors.clear();
+		context.obj1Vectors.clear();
+		context.obj2Vectors.clear();
 	}
 
 	/**
@@ -501,14 +919,17 @@ public class SAT
 	 * 
 	 * @return
 	 */
-	private static Segment2D getNewSegment()
+	private static Segment2D getNewSegment(SatContext2D context)
 	{
+		ArrayList<Segment2D> recycledSegments = context.recycledSegments;
 		if (!recycledSegments.isEmpty())
 		{
-			return recycledSegments.pop();
+			SatMetrics.segmentRequested(true);
+			return recycledSegments.remove(recycledSegments.size() - 1);
 		}
 		else
 		{
+			SatMetrics.segmentRequested(false);
 			return new Segment2D();
 		}
 	}
@@ -518,11 +939,11 @@ public class SAT
 	 * 
 	 * @param segment the segment that is no longer being used and is safe to be reused later.
 	 */
-	private static void recycleSegment(Segment2D segment)
+	private static void recycleSegment(SatContext2D context, Segment2D segment)
 	{
 		if (segment != null)
 		{
-			recycledSegments.push(segment);
+			context.recycledSegments.add(segment);
 		}
 	}
 
@@ -540,6 +961,42 @@ public class SAT
 		public float secondVertY = 0;
 	}
 
+	/**
+	 * The min and max projection scalars of two objects on a single axis.
+	 */
+	public static class Projection
+	{
+		public float obj1Min = 0;
+		public float obj1Max = 0;
+		public float obj2Min = 0;
+		public float obj2Max = 0;
+	}
+
+	/**
+	 * Result of a swept test, see
+	 * {@link SAT#PolygonCollide_2D_swept(SatContext2D, ConvexPolygon2D, ConvexPolygon2D, Vector2, Sweep2D)}.
+	 */
+	public static class Sweep2D
+	{
+		/** fraction of the tick at which the objects first touch */
+		public float time = 1;
+		/** unit length, points from obj1 towards obj2 at the time of impact */
+		public final Vector2 normal = new Vector2();
+
+		// search state
+		float exitTime;
+		float overlapDepth;
+		final Vector2 overlapNormal = new Vector2();
+
+		void reset()
+		{
+			time = Float.NEGATIVE_INFINITY;
+			exitTime = Float.POSITIVE_INFINITY;
+			overlapDepth = Float.POSITIVE_INFINITY;
+			normal.set(0, 0);
+		}
+	}
+
 	/**
 	 * Structure that contains all information needed for debug rendering.
 	 * 
@@ -562,5 +1019,9 @@ public class SAT
 		public Color obj2Color = new Color(Color.BLUE);
 		public Color axisColorObj1 = new Color(209 / 255f, 255 / 255f, 198 / 255f, 1f);
 		public Color axisColorObj2 = new Color(Color.SKY);
+		public Color mtvColor = new Color(Color.RED);
+
+		/** axes, projections and MTVs recorded by the debug paths; flush once per frame */
+		public final DebugDrawBuffer debugDraw = new DebugDrawBuffer();
 	}
 }
@@ -1,13 +1,13 @@
 package sat.simulation;
 
 import java.util.ArrayList;
-import java.util.Stack;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType;
 import com.badlogic.gdx.math.Vector2;
 
+import sat.simulation.SAT.Segment2D;
+
 /**
  * Class responsible for Separating Axis Theorem calculations.
  * 
@@ -21,9 +21,11 @@ import com.badlogic.gdx.math.Vector2;
  */
 public class SAT2dPresentation
 {
-	private static Stack<Segment2D> recycledSegments = new Stack<Segment2D>();
-	private static ArrayList<Segment2D> obj1Vectors = new ArrayList<Segment2D>();
-	private static ArrayList<Segment2D> obj2Vectors = new ArrayList<Segment2D>();
+	/**
+	 * Scratch space for the presentation. The presentation only ever runs on the render thread, so
+	 * a single context is enough.
+	 */
+	private static final SatContext2D context = new SatContext2D();
 
 	/**
 	 * SAT on 2D polygon. Assumes two sets of vertices can be used to provide a line segment surface
@@ -43,30 +45,30 @@ public class SAT2dPresentation
 	public static boolean PolygonCollide_2D_v1(RenderInformation2D renderInfo, float[] obj1Vertices, float[] obj2Vertices)
 	{
 		// determine normal vectors, these will be the axes
-		segmentize(obj1Vertices, obj1Vectors);
-		segmentize(obj2Vertices, obj2Vectors);
-		convertSegmentsToNormals(obj1Vectors);
-		convertSegmentsToNormals(obj2Vectors);
+		segmentize(obj1Vertices, context.obj1Vectors);
+		segmentize(obj2Vertices, context.obj2Vectors);
+		convertSegmentsToNormals(context.obj1Vectors);
+		convertSegmentsToNormals(context.obj2Vectors);
 
 		if (renderInfo != null)
 		{
 			if (renderInfo.drawFirstAxis <= renderInfo.currentStage && renderInfo.currentStage < renderInfo.drawOnlyProjections && renderInfo.currentStage != renderInfo.drawSecondAxis)
-				renderAxes(renderInfo, obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
+				renderAxes(renderInfo, context.obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
 			if (renderInfo.drawSecondAxis<= renderInfo.currentStage && renderInfo.currentStage < renderInfo.drawOnlyProjections)
-				renderAxes(renderInfo, obj2Vectors, 0, 0, renderInfo.axisColorObj2);
+				renderAxes(renderInfo, context.obj2Vectors, 0, 0, renderInfo.axisColorObj2);
 		}
 
 		// project min / max vertices on axes
 		// NOTE: boolean redundant checks because this method draws the projections, must check
 		// every projection to draw it.
 		boolean collision = true;
-		for (Segment2D axis : obj1Vectors)
+		for (Segment2D axis : context.obj1Vectors)
 		{
 			// test whether projections overlap.
 			// if there is a non-overlapping projection, there cannot be a collision.
 			collision &= projectionOverlap(obj1Vertices, obj2Vertices, axis, renderInfo);
 		}
-		for (Segment2D axis : obj2Vectors)
+		for (Segment2D axis : context.obj2Vectors)
 		{
 			collision &= projectionOverlap(obj1Vertices, obj2Vertices, axis, renderInfo);
 		}
@@ -81,18 +83,12 @@ public class SAT2dPresentation
 		// float offset = Gdx.graphics.getWidth() / 2;
 		float scale = 100;
 
-		ShapeRenderer sRenderer = renderInfo.shapeRenderer;
-
-		sRenderer.begin(ShapeType.Line);
-		sRenderer.setColor(axisColor);
-
+		DebugDrawBuffer debugDraw = renderInfo.debugDraw;
 		for (Segment2D segment : normals)
 		{
 			Segment2D axis = segment;
-			sRenderer.line(-scale * axis.firstVertX + offsetX, -scale * axis.secondVertY + offsetY, scale * axis.firstVertX + offsetX, scale * axis.secondVertY + offsetY);
+			debugDraw.line(-scale * axis.firstVertX + offsetX, -scale * axis.secondVertY + offsetY, scale * axis.firstVertX + offsetX, scale * axis.secondVertY + offsetY, axisColor);
 		}
-		sRenderer.end();
-		sRenderer.setColor(renderInfo.defaultColor);
 	}
 
 	/**
@@ -249,19 +245,18 @@ public class SAT2dPresentation
 		//@formatter:on
 	}
 	
-	public static Vector2 tempBuffer = new Vector2();
 	public static boolean PolygonCollide_2D_mtv(RenderInformation2D renderInfo, float[] obj1Vertices, float[] obj2Vertices, Vector2 mtvBuffer)
 	{
 		// determine normal vectors, these will be the axes
-		segmentize(obj1Vertices, obj1Vectors);
-		segmentize(obj2Vertices, obj2Vectors);
-		convertSegmentsToNormals(obj1Vectors);
-		convertSegmentsToNormals(obj2Vectors);
+		segmentize(obj1Vertices, context.obj1Vectors);
+		segmentize(obj2Vertices, context.obj2Vectors);
+		convertSegmentsToNormals(context.obj1Vectors);
+		convertSegmentsToNormals(context.obj2Vectors);
 
 		if (renderInfo != null)
 		{
-			renderAxes(renderInfo, obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
-			renderAxes(renderInfo, obj2Vectors, 0, 0, renderInfo.axisColorObj2);
+			renderAxes(renderInfo, context.obj1Vectors, 0.01f, 0.001f, renderInfo.axisColorObj1);
+			renderAxes(renderInfo, context.obj2Vectors, 0, 0, renderInfo.axisColorObj2);
 		}
 
 		mtvBuffer.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
@@ -270,25 +265,24 @@ public class SAT2dPresentation
 		// NOTE: boolean redundant checks because this method draws the projections, must check
 		// every projection to draw it.
 		boolean collision = true;
-		for (Segment2D axis : obj1Vectors)
+		for (Segment2D axis : context.obj1Vectors)
 		{
 			// test whether projections overlap.
 			// if there is a non-overlapping projection, there cannot be a collision.
-			collision &= projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, renderInfo, tempBuffer);
-			float magnitudeOfBuffer = vect1IsMinimumMagnitude(tempBuffer, mtvBuffer);
-			//zero signals the new translation vector is not smaller than last. 
-			if(magnitudeOfBuffer != 0)
+			collision &= projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, renderInfo, context.tempBuffer);
+			if (isShorter(context.tempBuffer, mtvBuffer))
 			{
-				mtvBuffer.set(tempBuffer);
+				mtvBuffer.set(context.tempBuffer);
+				context.mtvAxisLen2 = axis.firstVertX * axis.firstVertX + axis.firstVertY * axis.firstVertY;
 			}
 		}
-		for (Segment2D axis : obj2Vectors)
+		for (Segment2D axis : context.obj2Vectors)
 		{
-			collision &= projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, renderInfo, tempBuffer);
-			float magnitudeOfBuffer = vect1IsMinimumMagnitude(tempBuffer, mtvBuffer);
-			if(magnitudeOfBuffer != 0)
+			collision &= projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, renderInfo, context.tempBuffer);
+			if (isShorter(context.tempBuffer, mtvBuffer))
 			{
-				mtvBuffer.set(tempBuffer);
+				mtvBuffer.set(context.tempBuffer);
+				context.mtvAxisLen2 = axis.firstVertX * axis.firstVertX + axis.firstVertY * axis.firstVertY;
 			}
 		}
 
@@ -297,22 +291,22 @@ public class SAT2dPresentation
 		return collision;
 	}
 	
-	private static float vect1IsMinimumMagnitude(Vector2 vect1, Vector2 vect2)
+	/**
+	 * @return the squared length of the axis the last MTV lies along; the constant offset in the MTV
+	 *         is SAT.constantOffset times its length.
+	 */
+	static float mtvAxisLen2()
 	{
-		float pnt1Length = pythagorean(vect1);
-		float pnt2Length = pythagorean(vect2);
-		
-		if(pnt1Length < pnt2Length)
-		{
-			return pnt1Length;
-		}
-		//signals false, use int return types to allow use of non-zero returns to update length.
-		return 0f;
+		return context.mtvAxisLen2;
 	}
 
-	private static float pythagorean(Vector2 pnt1)
+	/**
+	 * Squared lengths order the same way lengths do, so the shorter vector can be found without a
+	 * square root.
+	 */
+	private static boolean isShorter(Vector2 vect1, Vector2 vect2)
 	{
-		return (float) Math.sqrt(Math.pow(pnt1.x, 2) + Math.pow(pnt1.y, 2));
+		return vect1.len2() < vect2.len2();
 	}
 
 	public static float constantOffset = 0.001f;
@@ -448,7 +442,7 @@ public class SAT2dPresentation
 
 	private static void renderProjections(RenderInformation2D rendInfo, Segment2D axis, float obj1Min, float obj1Max, float obj2Min, float obj2Max)
 	{
-		ShapeRenderer sr = rendInfo.shapeRenderer;
+		DebugDrawBuffer debugDraw = rendInfo.debugDraw;
 
 		float obj1MaxX = obj1Max * axis.firstVertX;
 		float obj1MinX = obj1Min * axis.firstVertX;
@@ -457,11 +451,7 @@ public class SAT2dPresentation
 
 		if(rendInfo.currentStage >= rendInfo.drawFirstProjections)
 		{
-			sr.begin(ShapeType.Line);
-			sr.setColor(rendInfo.obj1Color);
-			sr.line(obj1MinX, obj1MinY, obj1MaxX, obj1MaxY);
-			sr.setColor(rendInfo.defaultColor);
-			sr.end();
+			debugDraw.line(obj1MinX, obj1MinY, obj1MaxX, obj1MaxY, rendInfo.obj1Color);
 		}
 
 		float obj2MaxX = obj2Max * axis.firstVertX;
@@ -471,32 +461,28 @@ public class SAT2dPresentation
 
 		if(rendInfo.currentStage >= rendInfo.drawSecondProjections)
 		{
-			sr.begin(ShapeType.Line);
-			sr.setColor(rendInfo.obj2Color);
-			sr.line(obj2MinX, obj2MinY, obj2MaxX, obj2MaxY);
-			sr.setColor(rendInfo.defaultColor);
-			sr.end();
+			debugDraw.line(obj2MinX, obj2MinY, obj2MaxX, obj2MaxY, rendInfo.obj2Color);
 		}
 
 	}
 
 	/**
-	 * Returns all used segments to the static scope global recycled container. Clears out the array
+	 * Returns all used segments to the context's recycled container. Clears out the array
 	 * that stores segments. This helps by preventing new object allocation every time the SAT
 	 * algorithm is called.
 	 */
 	private static void cleanUpRecycledResources()
 	{
-		for (Segment2D segment : obj1Vectors)
+		for (Segment2D segment : context.obj1Vectors)
 		{
 			recycleSegment(segment);
 		}
-		for (Segment2D segment : obj2Vectors)
+		for (Segment2D segment : context.obj2Vectors)
 		{
 			recycleSegment(segment);
 		}
-		obj1Vectors.clear();
-		obj2Vectors.clear();
+		context.obj1Vectors.clear();
+		context.obj2Vectors.clear();
 	}
 
 	/**
@@ -509,9 +495,10 @@ public class SAT2dPresentation
 	 */
 	private static Segment2D getNewSegment()
 	{
+		ArrayList<Segment2D> recycledSegments = context.recycledSegments;
 		if (!recycledSegments.isEmpty())
 		{
-			return recycledSegments.pop();
+			return recycledSegments.remove(recycledSegments.size() - 1);
 		}
 		else
 		{
@@ -528,7 +515,7 @@ public class SAT2dPresentation
 	{
 		if (segment != null)
 		{
-			recycledSegments.push(segment);
+			context.recycledSegments.add(segment);
 		}
 	}
 
@@ -538,14 +525,6 @@ public class SAT2dPresentation
 	}
 
 	/* ------------------------------- HELPER CLASSES ----------------------------- */
-	public static class Segment2D
-	{
-		public float firstVertX = 0;
-		public float firstVertY = 0;
-		public float secondVertX = 0;
-		public float secondVertY = 0;
-	}
-
 	/**
 	 * Structure that contains all information needed for debug rendering.
 	 * 
@@ -568,6 +547,9 @@ public class SAT2dPresentation
 		public Color obj2Color = new Color(Color.BLUE);
 		public Color axisColorObj1 = new Color(209 / 255f, 255 / 255f, 198 / 255f, 1f);
 		public Color axisColorObj2 = new Color(Color.SKY);
+
+		/** axes and projections recorded by the presentation; flush once per frame */
+		public final DebugDrawBuffer debugDraw = new DebugDrawBuffer();
 		
 		//java enums are weird 
 		public int drawNothing = 0;
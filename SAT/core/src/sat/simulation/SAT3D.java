@@ -1,10 +1,10 @@
 package sat.simulation;
 
-import java.util.ArrayList;
-import java.util.Stack;
-
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 
+import sat.simulation.WrappedCubeModel.CubeInstance;
+
 /**
  * Class responsible for Separating Axis Theorem calculations.
  * 
@@ -18,63 +18,421 @@ import com.badlogic.gdx.math.Vector3;
  */
 public class SAT3D
 {
-	private static Stack<Segment3D> recycledSegments = new Stack<Segment3D>();
-	private static ArrayList<Segment3D> cube1Vectors = new ArrayList<Segment3D>();
-	private static ArrayList<Segment3D> cube2Vectors = new ArrayList<Segment3D>();
-	private static ArrayList<Vector3> axes = new ArrayList<Vector3>();
-	public static Vector3 tempBuffer = new Vector3();
+	/**
+	 * Scratch space used by the entry point that does not take a context. Shared by every caller, so
+	 * that entry point must only be used from one thread (e.g. the render thread).
+	 */
+	private static final SatContext3D sharedContext = new SatContext3D();
 
 	public static boolean CubeCollide_3D_mtv(Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 mtvBuffer)
 	{
+		return CubeCollide_3D_mtv(sharedContext, obj1Vertices, obj2Vertices, mtvBuffer);
+	}
+
+	/**
+	 * CubeCollide_3D_mtv using the given context for scratch space instead of the shared one.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 */
+	public static boolean CubeCollide_3D_mtv(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 mtvBuffer)
+	{
+		pack(obj1Vertices, context.cube1Vertices);
+		pack(obj2Vertices, context.cube2Vertices);
+		return CubeCollide_3D_mtv(context, context.cube1Vertices, context.cube2Vertices, mtvBuffer);
+	}
+
+	public static boolean CubeCollide_3D_mtv(float[] obj1Vertices, float[] obj2Vertices, Vector3 mtvBuffer)
+	{
+		return CubeCollide_3D_mtv(sharedContext, obj1Vertices, obj2Vertices, mtvBuffer);
+	}
+
+	/**
+	 * SAT with a minimum translation vector on two cubes given as packed world vertices, e.g. from
+	 * CubeInstance.getTransformVertices(float[]). The vertices, edges and axes are all read and
+	 * written as flat float arrays, so there are no Vector3s to chase between the arrays and no
+	 * segments to build.
+	 * 
+	 * @param context scratch space owned by the calling thread.
+	 * @param obj1Vertices 8 vertices as x,y,z triples; front face 0-3, rear face 4-7, as in
+	 *            CubeInstance.
+	 * @param mtvBuffer receives the vector that moves obj1 out of obj2; set to zero if there is no
+	 *            collision.
+	 * @return true if the cubes overlap.
+	 */
+	public static boolean CubeCollide_3D_mtv(SatContext3D context, float[] obj1Vertices, float[] obj2Vertices, Vector3 mtvBuffer)
+	{
+		SatMetrics.begin(context.callStats);
+
 		// determine normal vectors, these will be the axes
-		segmentizeCube(obj1Vertices, cube1Vectors);
-		segmentizeCube(obj2Vertices, cube2Vectors);
-		
-		convertSegmentsToAxes(cube1Vectors, cube2Vectors, axes);
+		float[] axes = context.cubeAxes;
+		int axisCount = cubeAxes(context, obj1Vertices, obj2Vertices, axes);
 
 		mtvBuffer.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+		context.separatingAxis.set(0, 0, 0);
 
-		// project min / max vertices on axes
-		// NOTE: boolean redundant checks because this method draws the projections, must check
-		// every projection to draw it.
 		boolean collision = true;
-		for (Vector3 axis : axes)
+		for (int i = 0; i < axisCount * 3; i += 3)
 		{
 			// test whether projections overlap.
 			// if there is a non-overlapping projection, there cannot be a collision.
-			collision &= projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, tempBuffer);
-			
-			float magnitudeOfBuffer = vect1IsMinimumMagnitude(tempBuffer, mtvBuffer);
-			// zero signals the new translation vector is not smaller than last.
-			if (magnitudeOfBuffer != 0)
-			{
-				mtvBuffer.set(tempBuffer);
-			}
-			
+			boolean overlap = projectionOverlap_MTV(obj1Vertices, obj2Vertices, axes[i], axes[i + 1], axes[i + 2], context.tempBuffer);
+			SatMetrics.axisTested(context.callStats, overlap);
+
 			//early exit if we find we're not coliding
-			if(!collision)
+			if (!overlap)
 			{
-				mtvBuffer.set(0,0,0);
+				collision = false;
+				mtvBuffer.set(0, 0, 0);
+				context.separatingAxis.set(axes[i], axes[i + 1], axes[i + 2]);
 				break;
 			}
+			if (isShorter(context.tempBuffer, mtvBuffer))
+			{
+				mtvBuffer.set(context.tempBuffer);
+				context.mtvAxisLen2 = axes[i] * axes[i] + axes[i + 1] * axes[i + 1] + axes[i + 2] * axes[i + 2];
+			}
 		}
-		
-		// clean up resources
-		cleanUpRecycledResources();
+
+		SatMetrics.end(SatMetrics.CUBE_MTV_3D, context.callStats, collision);
+		return collision;
+	}
+
+	/**
+	 * Copies vertices into a flat array as x,y,z triples.
+	 */
+	private static void pack(Vector3[] vertices, float[] packed)
+	{
+		for (int i = 0; i < vertices.length; ++i)
+		{
+			Vector3 vertex = vertices[i];
+			packed[3 * i] = vertex.x;
+			packed[3 * i + 1] = vertex.y;
+			packed[3 * i + 2] = vertex.z;
+		}
+	}
+
+	/**
+	 * SAT with a minimum translation vector on any two convex polyhedra. The axes are the shapes'
+	 * unique face normals, then the cross product of every pair of their unique edge directions.
+	 * Nothing is assumed about the vertex order, so wedges, prisms and hulls collide the same way
+	 * cubes do. Edge axes with a (nearly) zero length cross product come from parallel edges and are
+	 * skipped.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 * @param mtvBuffer receives the vector that moves obj1 out of obj2; set to zero if there is no
+	 *            collision.
+	 * @return true if the polyhedra overlap.
+	 */
+	public static boolean PolyhedronCollide_3D_mtv(SatContext3D context, ConvexPolyhedron obj1, ConvexPolyhedron obj2, Vector3 mtvBuffer)
+	{
+		SatMetrics.begin(context.callStats);
+		Vector3[] obj1Vertices = obj1.getWorldVertices();
+		Vector3[] obj2Vertices = obj2.getWorldVertices();
+
+		mtvBuffer.set(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+		context.separatingAxis.set(0, 0, 0);
+
+		boolean collision = minimumTranslation(context, obj1Vertices, obj2Vertices, obj1.getWorldFaceAxes(), obj1.getFaceAxisCount(), mtvBuffer)
+				&& minimumTranslation(context, obj1Vertices, obj2Vertices, obj2.getWorldFaceAxes(), obj2.getFaceAxisCount(), mtvBuffer);
+
+		Vector3[] obj1Edges = obj1.getWorldEdgeAxes();
+		Vector3[] obj2Edges = obj2.getWorldEdgeAxes();
+		Vector3 axis = context.temp1;
+		float degenerateLen2 = parallelTolerance * parallelTolerance;
+		for (int i = 0; i < obj1.getEdgeAxisCount() && collision; ++i)
+		{
+			for (int j = 0; j < obj2.getEdgeAxisCount() && collision; ++j)
+			{
+				// edge directions are unit length, so the cross product's length is the sine between them
+				axis.set(obj1Edges[i]).crs(obj2Edges[j]);
+				if (axis.len2() <= degenerateLen2)
+				{
+					continue;
+				}
+				collision = minimumTranslation(context, obj1Vertices, obj2Vertices, axis, mtvBuffer);
+			}
+		}
+
+		if (!collision)
+		{
+			mtvBuffer.set(0, 0, 0);
+		}
+		SatMetrics.end(SatMetrics.POLYHEDRON_MTV_3D, context.callStats, collision);
 		return collision;
 	}
 
-	private static float vect1IsMinimumMagnitude(Vector3 vect1, Vector3 vect2)
+	public static boolean BoxCollide_3D_mtv(CubeInstance obj1, CubeInstance obj2, Vector3 mtvBuffer)
 	{
-		float pnt1Length = vect1.len();
-		float pnt2Length = vect2.len();
+		return BoxCollide_3D_mtv(sharedContext, obj1, obj2, mtvBuffer);
+	}
 
-		if (pnt1Length < pnt2Length) { return pnt1Length; }
-		// signals false, use int return types to allow use of non-zero returns to update length.
-		return 0f;
+	/**
+	 * BoxCollide_3D_mtv on two cubes, using their model transforms and dimensions.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 */
+	public static boolean BoxCollide_3D_mtv(SatContext3D context, CubeInstance obj1, CubeInstance obj2, Vector3 mtvBuffer)
+	{
+		// the cubes keep their boxes until their transforms change
+		return BoxCollide_3D_mtv(context, obj1.getCenter(), obj1.getObbAxes(), obj1.getObbExtents(), obj2.getCenter(), obj2.getObbAxes(), obj2.getObbExtents(), mtvBuffer);
 	}
 
-	private final static float constantOffset = 0.001f;
+	/**
+	 * SAT with a minimum translation vector for two oriented boxes, each centered on the origin of
+	 * its transform.
+	 *
+	 * A box needs no vertices, segments or cross products of edges to be collided. Its three face
+	 * axes are the columns of its transform, and its projection onto any axis is a radius around
+	 * its center: the sum of each half extent times how much its face axis lines up with the axis.
+	 * With box 2's axes written in box 1's frame (a 3x3 matrix of dot products), all 15 axes (3 + 3
+	 * faces, 9 edge pairs) are tested with a few multiplies each instead of projecting 16 vertices.
+	 * See Ericson, Real-Time Collision Detection, 4.4.1.
+	 *
+	 * Transforms may rotate, translate and scale along the box's axes; a column's length is taken as
+	 * the scale of that axis. Shear is not supported.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 * @param halfExtents1 half of box 1's width, height and depth, before its transform's scale.
+	 * @param mtvBuffer receives the vector that moves box 1 out of box 2; set to zero if there is no
+	 *            collision.
+	 * @return true if the boxes overlap.
+	 */
+	public static boolean BoxCollide_3D_mtv(SatContext3D context, Matrix4 transform1, Vector3 halfExtents1, Matrix4 transform2, Vector3 halfExtents2, Vector3 mtvBuffer)
+	{
+		readBox(transform1.val, halfExtents1.x, halfExtents1.y, halfExtents1.z, context.box1Center, context.box1Axes, context.box1Extents);
+		readBox(transform2.val, halfExtents2.x, halfExtents2.y, halfExtents2.z, context.box2Center, context.box2Axes, context.box2Extents);
+		return BoxCollide_3D_mtv(context, context.box1Center, context.box1Axes, context.box1Extents, context.box2Center, context.box2Axes, context.box2Extents, mtvBuffer);
+	}
+
+	/**
+	 * BoxCollide_3D_mtv on boxes that have already been read from their transforms, e.g. the ones
+	 * CubeInstance caches.
+	 *
+	 * @param context scratch space owned by the calling thread.
+	 * @param center1 box 1's center as x,y,z.
+	 * @param axes1 box 1's unit face axes as x,y,z triples.
+	 * @param extents1 box 1's half extents along its axes, after scale.
+	 * @param mtvBuffer receives the vector that moves box 1 out of box 2; set to zero if there is no
+	 *            collision.
+	 * @return true if the boxes overlap.
+	 */
+	public static boolean BoxCollide_3D_mtv(SatContext3D context, float[] center1, float[] axes1, float[] extents1, float[] center2, float[] axes2, float[] extents2, Vector3 mtvBuffer)
+	{
+		SatMetrics.begin(context.callStats);
+		float[] a = extents1, b = extents2;
+		float[] axesA = axes1, axesB = axes2;
+		float[] R = context.rotation, absR = context.absRotation, t = context.centerOffset;
+
+		// box 2's axes in box 1's frame
+		for (int i = 0; i < 3; ++i)
+		{
+			for (int j = 0; j < 3; ++j)
+			{
+				R[3 * i + j] = axesA[3 * i] * axesB[3 * j] + axesA[3 * i + 1] * axesB[3 * j + 1] + axesA[3 * i + 2] * axesB[3 * j + 2];
+				absR[3 * i + j] = Math.abs(R[3 * i + j]);
+			}
+		}
+
+		// the offset from box 1's center to box 2's, in box 1's frame
+		float offsetX = center2[0] - center1[0];
+		float offsetY = center2[1] - center1[1];
+		float offsetZ = center2[2] - center1[2];
+		for (int i = 0; i < 3; ++i)
+		{
+			t[i] = offsetX * axesA[3 * i] + offsetY * axesA[3 * i + 1] + offsetZ * axesA[3 * i + 2];
+		}
+
+		float minimumDepth = Float.POSITIVE_INFINITY;
+		float mtvX = 0, mtvY = 0, mtvZ = 0; // unit axis the minimum depth was found on, pointing from box 1 to box 2
+		boolean collision = true;
+
+		// box 1's face axes
+		for (int i = 0; i < 3 && collision; ++i)
+		{
+			float ra = a[i];
+			float rb = b[0] * absR[3 * i] + b[1] * absR[3 * i + 1] + b[2] * absR[3 * i + 2];
+			float depth = ra + rb - Math.abs(t[i]);
+			collision = axisOverlaps(context, depth, axesA[3 * i], axesA[3 * i + 1], axesA[3 * i + 2]);
+			if (collision && depth < minimumDepth)
+			{
+				minimumDepth = depth;
+				float sign = t[i] >= 0 ? 1 : -1;
+				mtvX = axesA[3 * i] * sign;
+				mtvY = axesA[3 * i + 1] * sign;
+				mtvZ = axesA[3 * i + 2] * sign;
+			}
+		}
+
+		// box 2's face axes
+		for (int j = 0; j < 3 && collision; ++j)
+		{
+			float ra = a[0] * absR[j] + a[1] * absR[3 + j] + a[2] * absR[6 + j];
+			float rb = b[j];
+			float distance = t[0] * R[j] + t[1] * R[3 + j] + t[2] * R[6 + j];
+			float depth = ra + rb - Math.abs(distance);
+			collision = axisOverlaps(context, depth, axesB[3 * j], axesB[3 * j + 1], axesB[3 * j + 2]);
+			if (collision && depth < minimumDepth)
+			{
+				minimumDepth = depth;
+				float sign = distance >= 0 ? 1 : -1;
+				mtvX = axesB[3 * j] * sign;
+				mtvY = axesB[3 * j + 1] * sign;
+				mtvZ = axesB[3 * j + 2] * sign;
+			}
+		}
+
+		// cross products of each pair of edges, A[i] x B[j]
+		for (int i = 0; i < 3 && collision; ++i)
+		{
+			int i1 = (i + 1) % 3, i2 = (i + 2) % 3;
+			for (int j = 0; j < 3 && collision; ++j)
+			{
+				int j1 = (j + 1) % 3, j2 = (j + 2) % 3;
+
+				// |A[i] x B[j]| is the sine between the edges; parallel edges give no new axis, and their
+				// (nearly) zero cross product could report a false separation
+				float axisLength = (float) Math.sqrt(Math.max(0, 1 - R[3 * i + j] * R[3 * i + j]));
+				if (axisLength <= parallelTolerance)
+				{
+					continue;
+				}
+
+				float ra = a[i1] * absR[3 * i2 + j] + a[i2] * absR[3 * i1 + j];
+				float rb = b[j1] * absR[3 * i + j2] + b[j2] * absR[3 * i + j1];
+				float distance = t[i2] * R[3 * i1 + j] - t[i1] * R[3 * i2 + j];
+
+				// the radii and distance are along an axis that is not unit length
+				float depth = (ra + rb - Math.abs(distance)) / axisLength;
+				float axisX = (axesA[3 * i + 1] * axesB[3 * j + 2] - axesA[3 * i + 2] * axesB[3 * j + 1]) / axisLength;
+				float axisY = (axesA[3 * i + 2] * axesB[3 * j] - axesA[3 * i] * axesB[3 * j + 2]) / axisLength;
+				float axisZ = (axesA[3 * i] * axesB[3 * j + 1] - axesA[3 * i + 1] * axesB[3 * j]) / axisLength;
+				collision = axisOverlaps(context, depth, axisX, axisY, axisZ);
+				if (collision && depth < minimumDepth)
+				{
+					minimumDepth = depth;
+					float sign = distance >= 0 ? 1 : -1;
+					mtvX = axisX * sign;
+					mtvY = axisY * sign;
+					mtvZ = axisZ * sign;
+				}
+			}
+		}
+
+		if (collision)
+		{
+			// move box 1 away from box 2, with the same nudge the vertex based test gives
+			context.separatingAxis.set(0, 0, 0);
+			mtvBuffer.set(mtvX, mtvY, mtvZ).scl(-(minimumDepth + constantOffset));
+		}
+		else
+		{
+			mtvBuffer.set(0, 0, 0);
+		}
+		SatMetrics.end(SatMetrics.BOX_MTV_3D, context.callStats, collision);
+		return collision;
+	}
+
+	/**
+	 * Reads a box's center from the translation of its transform and its unit face axes from the
+	 * columns, and scales its half extents by the columns' lengths.
+	 *
+	 * @param transform a Matrix4's values.
+	 */
+	static void readBox(float[] transform, float halfX, float halfY, float halfZ, float[] center, float[] axes, float[] extents)
+	{
+		center[0] = transform[Matrix4.M03];
+		center[1] = transform[Matrix4.M13];
+		center[2] = transform[Matrix4.M23];
+		for (int column = 0; column < 3; ++column)
+		{
+			// matrices are column major, so column i starts at val[4 * i]
+			float x = transform[4 * column], y = transform[4 * column + 1], z = transform[4 * column + 2];
+			float length = (float) Math.sqrt(x * x + y * y + z * z);
+			axes[3 * column] = x / length;
+			axes[3 * column + 1] = y / length;
+			axes[3 * column + 2] = z / length;
+			extents[column] = length;
+		}
+		extents[0] *= halfX;
+		extents[1] *= halfY;
+		extents[2] *= halfZ;
+	}
+
+	/**
+	 * Records the test of one box axis.
+	 *
+	 * @param depth how far the projections overlap along the axis; negative if they do not.
+	 * @return false if the axis separates the boxes.
+	 */
+	private static boolean axisOverlaps(SatContext3D context, float depth, float axisX, float axisY, float axisZ)
+	{
+		boolean overlap = depth >= 0;
+		SatMetrics.axisTested(context.callStats, overlap);
+		if (!overlap)
+		{
+			context.separatingAxis.set(axisX, axisY, axisZ);
+		}
+		return overlap;
+	}
+
+	private static boolean minimumTranslation(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3[] axes, int axisCount, Vector3 mtvBuffer)
+	{
+		for (int i = 0; i < axisCount; ++i)
+		{
+			if (!minimumTranslation(context, obj1Vertices, obj2Vertices, axes[i], mtvBuffer))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Projects onto one axis, keeping the shorter translation vector in mtvBuffer.
+	 *
+	 * @return false if the axis separates the objects.
+	 */
+	private static boolean minimumTranslation(SatContext3D context, Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 axis, Vector3 mtvBuffer)
+	{
+		boolean overlap = projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, context.tempBuffer);
+		SatMetrics.axisTested(context.callStats, overlap);
+		if (!overlap)
+		{
+			context.separatingAxis.set(axis);
+			return false;
+		}
+		if (isShorter(context.tempBuffer, mtvBuffer))
+		{
+			mtvBuffer.set(context.tempBuffer);
+		}
+		return true;
+	}
+
+	/**
+	 * Squared lengths order the same way lengths do, so the shorter vector can be found without a
+	 * square root.
+	 */
+	private static boolean isShorter(Vector3 vect1, Vector3 vect2)
+	{
+		return vect1.len2() < vect2.len2();
+	}
+
+	/**
+	 * Projects both objects onto a single axis.
+	 * 
+	 * @return true if the axis separates the objects.
+	 */
+	static boolean separates(Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 axis)
+	{
+		return !projectionOverlap_MTV(obj1Vertices, obj2Vertices, axis, null);
+	}
+
+	final static float constantOffset = 0.001f;
+
+	/**
+	 * Sine of the largest angle between two axes that are still treated as parallel.
+	 */
+	final static float parallelTolerance = 0.001f;
 	private static boolean projectionOverlap_MTV(Vector3[] obj1Vertices, Vector3[] obj2Vertices, Vector3 vectorOnAxis, Vector3 mtv)
 	{
 		float obj1Min = Float.POSITIVE_INFINITY, obj2Min = Float.POSITIVE_INFINITY;
@@ -142,6 +500,54 @@ public class SAT3D
 			}
 		}
 
+		return intervalOverlap_MTV(obj1Min, obj1Max, obj2Min, obj2Max, vectorOnAxis.x, vectorOnAxis.y, vectorOnAxis.z, mtv);
+	}
+
+	/**
+	 * projectionOverlap_MTV on packed vertices, see {@link #CubeCollide_3D_mtv(SatContext3D, float[], float[], Vector3)}.
+	 */
+	private static boolean projectionOverlap_MTV(float[] obj1Vertices, float[] obj2Vertices, float axisX, float axisY, float axisZ, Vector3 mtv)
+	{
+		float obj1Min = Float.POSITIVE_INFINITY, obj2Min = Float.POSITIVE_INFINITY;
+		float obj1Max = Float.NEGATIVE_INFINITY, obj2Max = Float.NEGATIVE_INFINITY;
+
+		// C is the vertex's projection as a multiple of the axis, see the Vector3 version
+		float vDotV = axisX * axisX + axisY * axisY + axisZ * axisZ;
+		for (int i = 0; i < obj1Vertices.length; i += 3)
+		{
+			float C = (obj1Vertices[i] * axisX + obj1Vertices[i + 1] * axisY + obj1Vertices[i + 2] * axisZ) / vDotV;
+			if (C < obj1Min)
+			{
+				obj1Min = C;
+			}
+			if (C > obj1Max)
+			{
+				obj1Max = C;
+			}
+		}
+		for (int i = 0; i < obj2Vertices.length; i += 3)
+		{
+			float C = (obj2Vertices[i] * axisX + obj2Vertices[i + 1] * axisY + obj2Vertices[i + 2] * axisZ) / vDotV;
+			if (C < obj2Min)
+			{
+				obj2Min = C;
+			}
+			if (C > obj2Max)
+			{
+				obj2Max = C;
+			}
+		}
+		return intervalOverlap_MTV(obj1Min, obj1Max, obj2Min, obj2Max, axisX, axisY, axisZ, mtv);
+	}
+
+	/**
+	 * Tests the two objects' projections onto an axis for overlap, and if they do, sets the
+	 * translation vector along the axis that moves obj1 out of obj2.
+	 *
+	 * @param mtv may be null if only the overlap is needed.
+	 */
+	private static boolean intervalOverlap_MTV(float obj1Min, float obj1Max, float obj2Min, float obj2Max, float axisX, float axisY, float axisZ, Vector3 mtv)
+	{
 		//@formatter:off
 		//Imagine the objMin/Max ranges as being segments on a the X-axis.
 		//in reality, they represent scalars to multiply against the true axis. 
@@ -208,7 +614,7 @@ public class SAT3D
 
 				// take difference of segments, use difference to determine overlap
 				// use overlap to construct a vector. Vector should affect object 1
-				mtv.set(vectorOnAxis);
+				mtv.set(axisX, axisY, axisZ);
 				mtv.z *= C;
 				mtv.y *= C;
 				mtv.x *= C;
@@ -219,138 +625,18 @@ public class SAT3D
 	}
 
 	/**
-	 * Returns all used segments to the static scope global recycled container. Clears out the array
-	 * that stores segments. This helps by preventing new object allocation every time the SAT
-	 * algorithm is called.
-	 */
-	private static void cleanUpRecycledResources()
-	{
-		for (Segment3D segment : cube1Vectors)
-		{
-			recycleSegment(segment);
-		}
-		for (Segment3D segment : cube2Vectors)
-		{
-			recycleSegment(segment);
-		}
-		cube1Vectors.clear();
-		cube2Vectors.clear();
-	}
-
-	/**
-	 * Get a new segment to use. This pulls from a recycle bin if there are available segments.
-	 * Otherwise it creates a new segment. The clean up method should be called after this method is
-	 * used to return segments to the recycle bin. Using a recycle bin prevents the creation of new
-	 * objects every time this method is called.
-	 * 
-	 * @return
-	 */
-	private static Segment3D getNewSegment()
-	{
-		if (!recycledSegments.isEmpty())
-		{
-			return recycledSegments.pop();
-		}
-		else
-		{
-			return new Segment3D();
-		}
-	}
-
-	/**
-	 * Returns a segment to the recycle bin.
-	 * 
-	 * @param segment the segment that is no longer being used and is safe to be reused later.
-	 */
-	private static void recycleSegment(Segment3D segment)
-	{
-		if (segment != null)
-		{
-			recycledSegments.push(segment);
-		}
-	}
-
-	/**
-	 * Converts vertices into line segments (see helper struct Segment2D)
+	 * Works out the 15 candidate axes of two cubes into axes, as x,y,z triples, and moves the unique
+	 * ones to the front.
 	 * 
-	 * @param objVertices
-	 * @param segmentContainer a container that contains all of an objects 2D segments.
+	 * @return the number of unique axes.
 	 */
-	private static void segmentizeCube(Vector3[] objVertices, ArrayList<Segment3D> segmentContainer)
-	{
-		//REQUIRES FOLLOWING VERTEX MAPPING:
-		//front face: 0, 1, 2, 3
-		//rear face: 4, 5, 6, 7
-		
-		// FRONT FACE
-		for (int i = 0; i < objVertices.length / 2; ++i)
-		{
-			Segment3D segment = getNewSegment();
-			segment.firstVert.set(objVertices[i]);
-			if (i + 1 < objVertices.length / 2) // could shift for speed
-			{
-				// use the next vertex as the connecting point
-				segment.secondVert.set(objVertices[i + 1]);
-			}
-			else
-			{
-				// wrap around and use the first vertex as the starting point
-				segment.secondVert.set(objVertices[0]);
-			}
-			segmentContainer.add(segment);
-		}
-		// REAR FACE
-		for (int i = objVertices.length / 2; i < objVertices.length; ++i)
-		{
-			Segment3D segment = getNewSegment();
-			segment.firstVert.set(objVertices[i]);
-			if (i + 1 < objVertices.length) // could shift for speed
-			{
-				// use the next vertex as the connecting point
-				segment.secondVert.set(objVertices[i + 1]);
-			}
-			else
-			{
-				// wrap around and use the MIDDLE vertex as the starting point
-				segment.secondVert.set(objVertices[objVertices.length / 2]);
-			}
-			segmentContainer.add(segment);
-		}
-
-		// CONNECTIONS BETWEEN REAR AND FRONT
-		for (int i = 0; i < objVertices.length / 2; ++i)
-		{
-			Segment3D segment = getNewSegment();
-			segment.firstVert.set(objVertices[i]);
-			segment.secondVert.set(objVertices[i + 4]); //see required mapping above, this should connect corners between front and rear faces together.
-			segmentContainer.add(segment);
-		}
-	}
-
-	/**
-	 * Converts each segment into its normal vector. A 2D segment is defined by two vectors. The
-	 * vector difference between a segments vectors gives a vector that lies on the plane that both
-	 * vectors belong to.
-	 * 
-	 * With a vector that lies on the plane (ie line in 2d) defined by a segment, we can find the
-	 * normal vector. The dot product between the vector within the plane and the normal vector
-	 * should equal zero (They're perpendicular). We can use linear algebra to solve for the normal
-	 * vector.
-	 * 
-	 * @param segments
-	 * @param cubeNormals 
-	 */
-	public static Vector3 temp1 = new Vector3();
-	public static Vector3 temp2 = new Vector3();
-	private static void convertSegmentsToAxes(ArrayList<Segment3D> segmentsObj1, ArrayList<Segment3D> segmentsObj2, ArrayList<Vector3> cubeAxes)
+	private static int cubeAxes(SatContext3D context, float[] obj1Vertices, float[] obj2Vertices, float[] axes)
 	{
 		//REQUIRES FOLLOWING VERTEX MAPPING:
 		//front face: 0, 1, 2, 3
 		//rear face: 4, 5, 6, 7
 		//					   0    1    2    3   4    5     6    7   8    9    10    11
-		//segments should be {0-1}{1-2}{2-3}{3-1}{4-5}{5-6}{6-7}{7-4}{0-4}{1-5}{2-6}{3-7}
-		
-		//note: Segmentation isn't necessary for 3d, but it helps conceptually when designing the algorithm
+		//edges are {0-1}{1-2}{2-3}{3-0}{4-5}{5-6}{6-7}{7-4}{0-4}{1-5}{2-6}{3-7}
 		
 		/* Vertex Map
 		 *2----1
@@ -371,20 +657,22 @@ public class SAT3D
 		 *     \     \|
 		 *      *--7--* 
 		 */
-		
-		if(cubeAxes.size() == 0)
-			initializeCubeNormalsArray(cubeAxes);
-		
+
+		//Every edge is parallel to edge 0, 1 or 9, so only those three are needed from each cube.
+		//edges holds obj1's edges 0, 1, 9 then obj2's.
+		float[] edges = context.cubeEdges;
+		cubeEdges(obj1Vertices, edges, 0);
+		cubeEdges(obj2Vertices, edges, 9);
+
 		//Generate Normals For Faces (there are duplicate normals, so we can save time by only generating half, there are 3 faces)
 		//object 1 face normals
-		calculateFaceNorm(cubeAxes.get(0), segmentsObj1.get(0), segmentsObj1.get(1)); //front face; rear face is duplicate
-		calculateFaceNorm(cubeAxes.get(1), segmentsObj1.get(0), segmentsObj1.get(9)); //side face; there also exists duplicate
-		calculateFaceNorm(cubeAxes.get(2), segmentsObj1.get(1), segmentsObj1.get(9)); //top face; also exists duplicate beneath
+		cross(edges, 0, edges, 3, axes, 0); //front face; rear face is duplicate
+		cross(edges, 0, edges, 6, axes, 3); //side face; there also exists duplicate
+		cross(edges, 3, edges, 6, axes, 6); //top face; also exists duplicate beneath
 		//Object 2 face normals
-		calculateFaceNorm(cubeAxes.get(3), segmentsObj2.get(0), segmentsObj2.get(1)); //front face; rear face is duplicate
-		calculateFaceNorm(cubeAxes.get(4), segmentsObj2.get(0), segmentsObj2.get(9)); //side face; there also exists duplicate
-		calculateFaceNorm(cubeAxes.get(5), segmentsObj2.get(1), segmentsObj2.get(9)); //top face; also exists duplicate beneath
-		
+		cross(edges, 9, edges, 12, axes, 9);
+		cross(edges, 9, edges, 15, axes, 12);
+		cross(edges, 12, edges, 15, axes, 15);
 		
 		//3d requires something a bit more than 2d; we must check if our edges are overlapping, otherwise we may get false positives.
 		//Imagine a cubeA setting on a table; imagine cube B leaning onto cubeA so that a edge on the top face of B is setting on a vertical edge of A.
@@ -399,72 +687,109 @@ public class SAT3D
 		//2)the resulting vector of the cross product of the two vectors (ie the edges) in the plane; this will be our normal vector and our axis. 
 		
 		//Since we have parallel edges, there is some redundancy we can remove.
-		//Where C represents cube, and E represents edge...
-		//We can achieve all axes from: C1E1 X C2E1; C1E1 X C2E2; C1E1 X C2E3; C1E2 X C2E1;C1E2 X C2E2;C1E2 X C2E3;C1E2 X C2E1; C1E3 X C2E2;C1E3 X C2E3
-		//edges 0, 1, and 9 our are non-redundant edges
-		calculateEdgeAxis(cubeAxes.get(6), segmentsObj1.get(0), segmentsObj2.get(0));
-		calculateEdgeAxis(cubeAxes.get(7), segmentsObj1.get(0), segmentsObj2.get(1));
-		calculateEdgeAxis(cubeAxes.get(8), segmentsObj1.get(0), segmentsObj2.get(9));
-		calculateEdgeAxis(cubeAxes.get(9), segmentsObj1.get(1), segmentsObj2.get(0));
-		calculateEdgeAxis(cubeAxes.get(10), segmentsObj1.get(1), segmentsObj2.get(1));
-		calculateEdgeAxis(cubeAxes.get(11), segmentsObj1.get(1), segmentsObj2.get(9));
-		calculateEdgeAxis(cubeAxes.get(12), segmentsObj1.get(9), segmentsObj2.get(0));
-		calculateEdgeAxis(cubeAxes.get(13), segmentsObj1.get(9), segmentsObj2.get(1));
-		calculateEdgeAxis(cubeAxes.get(14), segmentsObj1.get(9), segmentsObj2.get(9));
+		//We can achieve all axes from C1E x C2E for E in edges 0, 1 and 9.
+		//Parallel edges have a (nearly) zero length cross product that adds no information, so it is
+		//not kept. Whether it is zero is judged against the lengths of its own two edges, never
+		//against other axes, so a small cube next to a large one keeps all of its axes.
+		int axisCount = 6;
+		for (int i = 0; i < 3; ++i)
+		{
+			for (int j = 0; j < 3; ++j)
+			{
+				int edge1 = 3 * i, edge2 = 9 + 3 * j;
+				if (!isParallel(edges[edge1], edges[edge1 + 1], edges[edge1 + 2], edges[edge2], edges[edge2 + 1], edges[edge2 + 2]))
+				{
+					cross(edges, edge1, edges, edge2, axes, 3 * axisCount);
+					++axisCount;
+				}
+			}
+		}
+
+		//Aligned cubes share face normals, which would only be projected onto twice.
+		return removeParallelAxes(axes, axisCount);
 	}
-	
-	private static void calculateEdgeAxis(Vector3 axisVector, Segment3D obj1Edge, Segment3D obj2Edge)
+
+	/**
+	 * Writes a cube's edges 0 (0-1), 1 (1-2) and 9 (1-5) as direction triples starting at offset.
+	 */
+	private static void cubeEdges(float[] vertices, float[] edges, int offset)
 	{
-		//Take differences of vertices in cube to get vector that represents the edge
-		temp1.set(obj1Edge.firstVert);
-		temp1.sub(obj1Edge.secondVert);
-		temp2.set(obj2Edge.firstVert);
-		temp2.sub(obj2Edge.secondVert);
-		
-		//The two edges define a plane between them
-		//we want the normal to this plane, it is an axis we must project on. 
-		Vector3 edge1 = temp1; //renaming for clarity 
-		Vector3 edge2 = temp2;
-		axisVector.set(edge1);
-		axisVector.crs(edge2);
+		for (int k = 0; k < 3; ++k)
+		{
+			edges[offset + k] = vertices[k] - vertices[3 + k];
+			edges[offset + 3 + k] = vertices[3 + k] - vertices[6 + k];
+			edges[offset + 6 + k] = vertices[3 + k] - vertices[15 + k];
+		}
 	}
 
-	private static void calculateFaceNorm(Vector3 faceNormal, Segment3D faceEdge1, Segment3D faceEdge2)
+	/**
+	 * out = a x b, each an x,y,z triple in a flat array.
+	 */
+	private static void cross(float[] a, int aOffset, float[] b, int bOffset, float[] out, int outOffset)
 	{
-		//take difference of two vectors in a segment to get a vector that is in the plane.
-		temp1.set(faceEdge1.firstVert);
-		temp1.sub(faceEdge1.secondVert);
-		
-		//take difference of two vectors in a segment to get a vector that is in the plane.
-		temp2.set(faceEdge2.firstVert);
-		temp2.sub(faceEdge2.secondVert);
-		
-		//take the cross product between two vectors in the face plane to the a vector in the normal direction; this is our axis. 
-		Vector3 faceVector1 = temp1; //renaming for clarity
-		Vector3 faceVector2 = temp2;
-		faceNormal.set(faceVector1);
-		faceNormal.crs(faceVector2);
+		float aX = a[aOffset], aY = a[aOffset + 1], aZ = a[aOffset + 2];
+		float bX = b[bOffset], bY = b[bOffset + 1], bZ = b[bOffset + 2];
+		out[outOffset] = aY * bZ - aZ * bY;
+		out[outOffset + 1] = aZ * bX - aX * bZ;
+		out[outOffset + 2] = aX * bY - aY * bX;
 	}
 
-	private static void initializeCubeNormalsArray(ArrayList<Vector3> cubeAxes)
+	/**
+	 * Moves the unique axes to the front of the array. An axis is dropped if it is (nearly)
+	 * parallel to an axis that was already kept. Parallel axes always give the same overlap result,
+	 * so only one of them needs to be projected onto. Zero length axes must already be left out by
+	 * the caller, which knows what each axis was made from.
+	 * 
+	 * @param axes the candidate axes as x,y,z triples; reordered in place.
+	 * @return the number of unique axes at the front of the array.
+	 */
+	private static int removeParallelAxes(float[] axes, int axisCount)
 	{
-		cubeAxes.clear();
-		for(int i = 0; i < 15; ++i)
+		int uniqueCount = 0;
+		for (int i = 0; i < axisCount * 3; i += 3)
 		{
-			cubeAxes.add(new Vector3());
+			float x = axes[i], y = axes[i + 1], z = axes[i + 2];
+			boolean unique = true;
+			for (int j = 0; j < uniqueCount * 3 && unique; j += 3)
+			{
+				unique = !isParallel(axes[j], axes[j + 1], axes[j + 2], x, y, z);
+			}
+			if (unique)
+			{
+				// swap so no axes are lost from the array
+				int front = uniqueCount * 3;
+				axes[i] = axes[front];
+				axes[i + 1] = axes[front + 1];
+				axes[i + 2] = axes[front + 2];
+				axes[front] = x;
+				axes[front + 1] = y;
+				axes[front + 2] = z;
+				++uniqueCount;
+			}
 		}
-		
+		return uniqueCount;
 	}
 
-	/* ------------------------------- HELPER CLASSES ----------------------------- */
-	public static class Segment3D
+	/**
+	 * Two vectors are parallel if the sine of the angle between them is within the tolerance. Since
+	 * |a x b| = |a||b|sin(angle), this can be checked with squared lengths and no square roots.
+	 */
+	static boolean isParallel(Vector3 a, Vector3 b)
+	{
+		return isParallel(a.x, a.y, a.z, b.x, b.y, b.z);
+	}
+	
+	static boolean isParallel(Vector3 a, float bX, float bY, float bZ)
 	{
-		public float firstVertX = 0;
-		public float firstVertY = 0;
-		public float secondVertX = 0;
-		public float secondVertY = 0;
+		return isParallel(a.x, a.y, a.z, bX, bY, bZ);
+	}
 
-		public Vector3 firstVert = new Vector3();
-		public Vector3 secondVert = new Vector3();
+	static boolean isParallel(float aX, float aY, float aZ, float bX, float bY, float bZ)
+	{
+		float crossX = aY * bZ - aZ * bY;
+		float crossY = aZ * bX - aX * bZ;
+		float crossZ = aX * bY - aY * bX;
+		float crossLen2 = crossX * crossX + crossY * crossY + crossZ * crossZ;
+		return crossLen2 <= parallelTolerance * parallelTolerance * (aX * aX + aY * aY + aZ * aZ) * (bX * bX + bY * bY + bZ * bZ);
 	}
 }
@@ -0,0 +1,151 @@
+package sat.simulation;
+
+/**
+ * Structure of arrays version of the headless 2D SAT, for colliding many pairs in one call.
+ *
+ * Every shape's world vertices are packed into one float[] as x,y pairs. A shape is described by
+ * the index of its first coordinate and its vertex count. Pairs are given as a flat int[] of shape
+ * indices. Results go into a bit set of hit flags and a flat float[] of MTVs, so a whole tick's worth
+ * of pairs is tested without touching a single object.
+ *
+ * The test and the MTV are the same as SAT.PolygonCollide_2D_mtv on float[] vertices; the MTV is the
+ * vector that moves the first shape of a pair out of the second.
+ *
+ * @author Matt Stone
+ */
+public class SATBatch2D
+{
+	/**
+	 * Collides every pair in the list.
+	 *
+	 * @param coordinates packed world vertices of every shape, as x,y pairs.
+	 * @param shapeOffsets index into coordinates of the first x of each shape.
+	 * @param shapeVertexCounts number of vertices of each shape.
+	 * @param pairs shape indices, two per pair: {a0, b0, a1, b1, ...}
+	 * @param pairCount number of pairs to test.
+	 * @param hitBits receives a set bit for each colliding pair (bit p % 64 of word p / 64). Must hold
+	 *            at least (pairCount + 63) / 64 words; the words covering the pairs are overwritten.
+	 * @param mtvs receives the MTV of each pair as x,y at [2p, 2p + 1], zero for pairs that do not
+	 *            collide. May be null if MTVs are not needed.
+	 * @return the number of colliding pairs.
+	 */
+	public static int PolygonCollide_2D_batch(float[] coordinates, int[] shapeOffsets, int[] shapeVertexCounts, int[] pairs, int pairCount, long[] hitBits, float[] mtvs)
+	{
+		return collideRange(coordinates, shapeOffsets, shapeVertexCounts, pairs, 0, pairCount, hitBits, mtvs);
+	}
+
+	/**
+	 * Collides the pairs in [firstPair, endPair). Results are written to the same slots as if the whole
+	 * list was collided, so ranges may be collided independently. Ranges that run concurrently must not
+	 * share a word of hitBits, i.e. firstPair should be a multiple of 64.
+	 *
+	 * @return the number of colliding pairs in the range.
+	 */
+	static int collideRange(float[] coordinates, int[] shapeOffsets, int[] shapeVertexCounts, int[] pairs, int firstPair, int endPair, long[] hitBits, float[] mtvs)
+	{
+		// clear only the bits in range; the words at either end may hold bits for other ranges
+		for (int p = firstPair; p < endPair; ++p)
+		{
+			hitBits[p >>> 6] &= ~(1L << p);
+		}
+
+		int hits = 0;
+		for (int p = firstPair; p < endPair; ++p)
+		{
+			int shape1 = pairs[2 * p];
+			int shape2 = pairs[2 * p + 1];
+			boolean hit = collidePair(coordinates, shapeOffsets[shape1], shapeVertexCounts[shape1], shapeOffsets[shape2], shapeVertexCounts[shape2], mtvs, 2 * p);
+			if (hit)
+			{
+				hitBits[p >>> 6] |= 1L << p;
+				++hits;
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * @return whether a pair's bit is set in a bit set filled by PolygonCollide_2D_batch.
+	 */
+	public static boolean isHit(long[] hitBits, int pair)
+	{
+		return (hitBits[pair >>> 6] & (1L << pair)) != 0;
+	}
+
+	/**
+	 * SAT on one pair. The axes are the edge normals of obj1 followed by those of obj2, computed on
+	 * the fly from the packed vertices.
+	 */
+	private static boolean collidePair(float[] coordinates, int obj1Offset, int obj1Count, int obj2Offset, int obj2Count, float[] mtvs, int mtvIndex)
+	{
+		float minimumLen2 = Float.POSITIVE_INFINITY;
+		float mtvX = 0, mtvY = 0;
+
+		int axisCount = obj1Count + obj2Count;
+		for (int axis = 0; axis < axisCount; ++axis)
+		{
+			// edge from vertex i to vertex i + 1 of whichever shape owns this axis
+			int offset = axis < obj1Count ? obj1Offset : obj2Offset;
+			int count = axis < obj1Count ? obj1Count : obj2Count;
+			int edge = axis < obj1Count ? axis : axis - obj1Count;
+			int first = offset + 2 * edge;
+			int second = offset + 2 * ((edge + 1) % count);
+
+			// the edge rotated 90 degrees is its normal; it does not need to be unit length
+			float axisX = coordinates[second + 1] - coordinates[first + 1];
+			float axisY = coordinates[first] - coordinates[second];
+			float vDotV = axisX * axisX + axisY * axisY;
+
+			// project with the raw dot products and divide the extremes once, rather than every vertex
+			float obj1Min = Float.POSITIVE_INFINITY, obj1Max = Float.NEGATIVE_INFINITY;
+			int obj1End = obj1Offset + 2 * obj1Count;
+			for (int i = obj1Offset; i < obj1End; i += 2)
+			{
+				float dot = coordinates[i] * axisX + coordinates[i + 1] * axisY;
+				obj1Min = Math.min(obj1Min, dot);
+				obj1Max = Math.max(obj1Max, dot);
+			}
+			float obj2Min = Float.POSITIVE_INFINITY, obj2Max = Float.NEGATIVE_INFINITY;
+			int obj2End = obj2Offset + 2 * obj2Count;
+			for (int i = obj2Offset; i < obj2End; i += 2)
+			{
+				float dot = coordinates[i] * axisX + coordinates[i + 1] * axisY;
+				obj2Min = Math.min(obj2Min, dot);
+				obj2Max = Math.max(obj2Max, dot);
+			}
+			obj1Min /= vDotV;
+			obj1Max /= vDotV;
+			obj2Min /= vDotV;
+			obj2Max /= vDotV;
+
+			if (!SAT.overlaps(obj1Min, obj1Max, obj2Min, obj2Max))
+			{
+				if (mtvs != null)
+				{
+					mtvs[mtvIndex] = 0;
+					mtvs[mtvIndex + 1] = 0;
+				}
+				return false;
+			}
+
+			if (mtvs != null)
+			{
+				float C = SAT.translationScalar(obj1Min, obj1Max, obj2Min, obj2Max);
+				float translationLen2 = C * C * vDotV;
+				if (translationLen2 < minimumLen2)
+				{
+					minimumLen2 = translationLen2;
+					mtvX = axisX * C;
+					mtvY = axisY * C;
+				}
+			}
+		}
+
+		if (mtvs != null)
+		{
+			mtvs[mtvIndex] = mtvX;
+			mtvs[mtvIndex + 1] = mtvY;
+		}
+		return true;
+	}
+}
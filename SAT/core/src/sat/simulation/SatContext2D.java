@@ -0,0 +1,36 @@
+package sat.simulation;
+
+import java.util.ArrayList;
+
+import com.badlogic.gdx.math.Vector2;
+
+import sat.simulation.SAT.Projection;
+import sat.simulation.SAT.Segment2D;
+
+/**
+ * Owns all of the scratch space the 2D SAT algorithms need. SAT keeps no state between calls
+ * besides what is stored here, so each thread that runs collision checks should own its own context;
+ * contexts are not thread safe and must not be shared while in use.
+ * 
+ * A context is meant to be created once and reused. After the first few calls the recycled
+ * segments cover the largest polygons seen and no further objects are allocated.
+ */
+public class SatContext2D
+{
+	// plain lists instead of java.util.Stack; a context is only used by one thread so there is no
+	// need to pay for synchronization on every push/pop.
+	final ArrayList<Segment2D> recycledSegments = new ArrayList<Segment2D>();
+	final ArrayList<Segment2D> obj1Vectors = new ArrayList<Segment2D>();
+	final ArrayList<Segment2D> obj2Vectors = new ArrayList<Segment2D>();
+	final Projection projection = new Projection();
+	final Vector2 tempBuffer = new Vector2();
+	final SatMetrics.CallStats callStats = new SatMetrics.CallStats();
+
+	// squared length of the axis the last MTV lies along. The float[] kernels project onto raw edge
+	// normals, so the constant offset they add to the MTV is SAT.constantOffset times this length.
+	float mtvAxisLen2 = 1;
+
+	// the axis that separated the last pair of ConvexPolygon2Ds, counting obj1's axes then obj2's;
+	// -1 if they collided
+	int separatingAxis = -1;
+}
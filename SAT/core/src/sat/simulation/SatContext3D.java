@@ -0,0 +1,61 @@
+package sat.simulation;
+
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Owns all of the scratch space the 3D narrowphase algorithms (SAT3D and GJK3D) need. Each thread that runs collision checks
+ * should own its own context; contexts are not thread safe and must not be shared while in use.
+ * 
+ * A context is meant to be created once and reused, after the first call no further objects are
+ * allocated.
+ */
+public class SatContext3D
+{
+	// cube scratch as x,y,z triples: packed copies of Vector3 vertices, edges 0, 1 and 9 of each
+	// cube, and the 15 candidate axes with the unique ones first
+	final float[] cube1Vertices = new float[24];
+	final float[] cube2Vertices = new float[24];
+	final float[] cubeEdges = new float[18];
+	final float[] cubeAxes = new float[45];
+	final Vector3 tempBuffer = new Vector3();
+	final Vector3 temp1 = new Vector3();
+	final Vector3 temp2 = new Vector3();
+	final SatMetrics.CallStats callStats = new SatMetrics.CallStats();
+
+	// box scratch: centers, unit axes as x,y,z triples, scaled half extents, and box 2's axes in box
+	// 1's frame
+	final float[] box1Center = new float[3];
+	final float[] box2Center = new float[3];
+	final float[] box1Axes = new float[9];
+	final float[] box2Axes = new float[9];
+	final float[] box1Extents = new float[3];
+	final float[] box2Extents = new float[3];
+	final float[] rotation = new float[9];
+	final float[] absRotation = new float[9];
+	final float[] centerOffset = new float[3];
+
+	// GJK scratch: the simplex, newest point last, and the search direction
+	final Vector3[] simplex = { new Vector3(), new Vector3(), new Vector3(), new Vector3() };
+	int simplexSize = 0;
+	final Vector3 direction = new Vector3();
+	final Vector3 temp3 = new Vector3();
+	final Vector3 temp4 = new Vector3();
+
+	// EPA scratch: polytope vertices as x,y,z triples, faces as vertex index triples with a unit
+	// outward normal and distance from the origin per face, and the horizon's edges as index pairs.
+	// These grow if a polytope needs more room, and are kept for the next call.
+	float[] polytope = new float[64 * 3];
+	int polytopeSize = 0;
+	int[] faces = new int[128 * 3];
+	float[] faceNormals = new float[128 * 4];
+	int faceCount = 0;
+	int[] edges = new int[64 * 2];
+	int edgeCount = 0;
+
+	// squared length of the axis the last cube MTV lies along. The cube axes are raw cross products,
+	// so the constant offset added to the MTV is constantOffset times this length.
+	float mtvAxisLen2 = 1;
+
+	// the axis that separated the last pair of cubes; zero if they collided
+	final Vector3 separatingAxis = new Vector3();
+}
@@ -0,0 +1,267 @@
+package sat.simulation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional counters for what SAT and SAT3D are doing: calls, hits, axes tested, which axis separated
+ * the objects, segment pool hits and misses, and time spent per entry point.
+ *
+ * Metrics are off unless the JVM is started with -Dsat.metrics=true. The flag is a static final, so
+ * once the JIT has compiled the hot paths every "if (ENABLED)" in here is folded away and disabled
+ * metrics cost nothing. When enabled, counters are LongAdders, which stripe their updates across
+ * cells so threads collide on them rarely; they are only summed when read.
+ *
+ * Read them every tick with {@link #snapshot(Snapshot)} into a reused Snapshot.
+ *
+ * @author Matt Stone
+ */
+public class SatMetrics
+{
+	public static final boolean ENABLED = Boolean.getBoolean("sat.metrics");
+
+	// entry points
+	public static final int V1_2D = 0;
+	public static final int COLLIDE_2D = 1;
+	public static final int MTV_2D = 2;
+	public static final int MTV_DEBUG_2D = 3;
+	public static final int CONVEX_COLLIDE_2D = 4;
+	public static final int CONVEX_MTV_2D = 5;
+	public static final int CUBE_MTV_3D = 6;
+	public static final int SWEPT_2D = 7;
+	public static final int POLYHEDRON_MTV_3D = 8;
+	public static final int BOX_MTV_3D = 9;
+	public static final int GJK_3D = 10;
+	public static final int GJK_MTV_3D = 11;
+	public static final int ENTRY_POINT_COUNT = 12;
+
+	private static final String[] names = { "PolygonCollide_2D_v1", "PolygonCollide_2D", "PolygonCollide_2D_mtv", "PolygonCollide_2D_mtv (debug)", "PolygonCollide_2D (convex)",
+			"PolygonCollide_2D_mtv (convex)", "CubeCollide_3D_mtv", "PolygonCollide_2D_swept",
+			"PolyhedronCollide_3D_mtv", "BoxCollide_3D_mtv", "GJK3D.Collide_3D", "GJK3D.Collide_3D_mtv" };
+
+	// the debug versions test every axis so they can draw them; the rest stop at the first separating axis
+	private static final boolean[] stopsEarly = { false, true, true, false, true, true, true, true, true, true, true, true };
+
+	/** index of the separating axis is counted in this many buckets; later axes share the last one */
+	public static final int SEPARATING_AXIS_BUCKETS = 16;
+
+	private static final LongAdder[] calls = newAdders(ENTRY_POINT_COUNT);
+	private static final LongAdder[] hits = newAdders(ENTRY_POINT_COUNT);
+	private static final LongAdder[] earlyExits = newAdders(ENTRY_POINT_COUNT);
+	private static final LongAdder[] axesTested = newAdders(ENTRY_POINT_COUNT);
+	private static final LongAdder[] nanos = newAdders(ENTRY_POINT_COUNT);
+	private static final LongAdder[][] separatingAxis = new LongAdder[ENTRY_POINT_COUNT][];
+	private static final LongAdder segmentPoolHits = new LongAdder();
+	private static final LongAdder segmentPoolMisses = new LongAdder();
+
+	static
+	{
+		for (int i = 0; i < ENTRY_POINT_COUNT; ++i)
+		{
+			separatingAxis[i] = newAdders(SEPARATING_AXIS_BUCKETS);
+		}
+	}
+
+	private static LongAdder[] newAdders(int count)
+	{
+		LongAdder[] adders = new LongAdder[count];
+		for (int i = 0; i < count; ++i)
+		{
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	public static String name(int entryPoint)
+	{
+		return names[entryPoint];
+	}
+
+	/* ------------------------------- RECORDING ----------------------------- */
+
+	/**
+	 * Starts recording a call. The per call counts live in the caller's context, so threads never
+	 * share them.
+	 */
+	static void begin(CallStats stats)
+	{
+		if (ENABLED)
+		{
+			stats.startNanos = System.nanoTime();
+			stats.axesTested = 0;
+			stats.separatingAxis = -1;
+		}
+	}
+
+	/**
+	 * Records one projection of both objects onto an axis.
+	 *
+	 * @param overlap whether the projections overlapped on the axis.
+	 */
+	static void axisTested(CallStats stats, boolean overlap)
+	{
+		if (ENABLED)
+		{
+			if (!overlap && stats.separatingAxis < 0)
+			{
+				stats.separatingAxis = stats.axesTested;
+			}
+			++stats.axesTested;
+		}
+	}
+
+	/**
+	 * Adds a finished call to the counters.
+	 */
+	static void end(int entryPoint, CallStats stats, boolean hit)
+	{
+		if (ENABLED)
+		{
+			nanos[entryPoint].add(System.nanoTime() - stats.startNanos);
+			calls[entryPoint].increment();
+			axesTested[entryPoint].add(stats.axesTested);
+			if (hit)
+			{
+				hits[entryPoint].increment();
+			}
+			else
+			{
+				if (stopsEarly[entryPoint])
+				{
+					earlyExits[entryPoint].increment();
+				}
+				if (stats.separatingAxis >= 0)
+				{
+					separatingAxis[entryPoint][Math.min(stats.separatingAxis, SEPARATING_AXIS_BUCKETS - 1)].increment();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Records a request for a segment from a context's recycle bin.
+	 *
+	 * @param recycled true if a recycled segment was reused, false if a new one had to be allocated.
+	 */
+	static void segmentRequested(boolean recycled)
+	{
+		if (ENABLED)
+		{
+			(recycled ? segmentPoolHits : segmentPoolMisses).increment();
+		}
+	}
+
+	/* ------------------------------- READING ----------------------------- */
+
+	/**
+	 * Copies the current totals into a snapshot. Counters keep running while they are read, so the
+	 * values of a snapshot taken during collision checks on other threads may be off by a call or
+	 * two relative to each other.
+	 *
+	 * @param out receives the totals; reuse it between reads to avoid allocating.
+	 * @return out
+	 */
+	public static Snapshot snapshot(Snapshot out)
+	{
+		for (int i = 0; i < ENTRY_POINT_COUNT; ++i)
+		{
+			out.calls[i] = calls[i].sum();
+			out.hits[i] = hits[i].sum();
+			out.earlyExits[i] = earlyExits[i].sum();
+			out.axesTested[i] = axesTested[i].sum();
+			out.nanos[i] = nanos[i].sum();
+			for (int bucket = 0; bucket < SEPARATING_AXIS_BUCKETS; ++bucket)
+			{
+				out.separatingAxis[i][bucket] = separatingAxis[i][bucket].sum();
+			}
+		}
+		out.segmentPoolHits = segmentPoolHits.sum();
+		out.segmentPoolMisses = segmentPoolMisses.sum();
+		return out;
+	}
+
+	/**
+	 * Sets every counter back to zero, e.g. after reading them at the end of a tick.
+	 */
+	public static void reset()
+	{
+		for (int i = 0; i < ENTRY_POINT_COUNT; ++i)
+		{
+			calls[i].reset();
+			hits[i].reset();
+			earlyExits[i].reset();
+			axesTested[i].reset();
+			nanos[i].reset();
+			for (int bucket = 0; bucket < SEPARATING_AXIS_BUCKETS; ++bucket)
+			{
+				separatingAxis[i][bucket].reset();
+			}
+		}
+		segmentPoolHits.reset();
+		segmentPoolMisses.reset();
+	}
+
+	/* ------------------------------- HELPER CLASSES ----------------------------- */
+
+	/**
+	 * Counts for the call in progress, owned by a SatContext2D or SatContext3D.
+	 */
+	static class CallStats
+	{
+		long startNanos;
+		int axesTested;
+		int separatingAxis;
+	}
+
+	/**
+	 * Totals at the time of a {@link SatMetrics#snapshot(Snapshot)}. Arrays are indexed by entry
+	 * point.
+	 */
+	public static class Snapshot
+	{
+		public final long[] calls = new long[ENTRY_POINT_COUNT];
+		public final long[] hits = new long[ENTRY_POINT_COUNT];
+		/** misses that returned at the separating axis without testing the rest */
+		public final long[] earlyExits = new long[ENTRY_POINT_COUNT];
+		public final long[] axesTested = new long[ENTRY_POINT_COUNT];
+		public final long[] nanos = new long[ENTRY_POINT_COUNT];
+		/** misses by the index (in test order) of the first axis that separated the objects */
+		public final long[][] separatingAxis = new long[ENTRY_POINT_COUNT][SEPARATING_AXIS_BUCKETS];
+		public long segmentPoolHits;
+		public long segmentPoolMisses;
+
+		public float hitRatio(int entryPoint)
+		{
+			return calls[entryPoint] == 0 ? 0 : hits[entryPoint] / (float) calls[entryPoint];
+		}
+
+		public float averageAxesTested(int entryPoint)
+		{
+			return calls[entryPoint] == 0 ? 0 : axesTested[entryPoint] / (float) calls[entryPoint];
+		}
+
+		public float averageNanos(int entryPoint)
+		{
+			return calls[entryPoint] == 0 ? 0 : nanos[entryPoint] / (float) calls[entryPoint];
+		}
+
+		@Override
+		public String toString()
+		{
+			StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < ENTRY_POINT_COUNT; ++i)
+			{
+				if (calls[i] == 0)
+				{
+					continue;
+				}
+				builder.append(name(i)).append(": calls ").append(calls[i]);
+				builder.append(", hit ratio ").append(hitRatio(i));
+				builder.append(", axes/call ").append(averageAxesTested(i));
+				builder.append(", early exits ").append(earlyExits[i]);
+				builder.append(", ns/call ").append(averageNanos(i)).append('\n');
+			}
+			builder.append("segment pool: hits ").append(segmentPoolHits).append(", misses ").append(segmentPoolMisses);
+			return builder.toString();
+		}
+	}
+}
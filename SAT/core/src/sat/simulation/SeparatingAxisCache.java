@@ -0,0 +1,276 @@
+package sat.simulation;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Remembers the axis that last separated each pair of shapes and tests it first.
+ *
+ * Shapes move little from one tick to the next, so a pair that was separated last tick is almost
+ * always separated by the same axis this tick. Testing that axis first rejects the pair after a single
+ * projection instead of searching every axis. If the remembered axis no longer separates the pair,
+ * the full SAT test runs and the cache is updated with whatever it finds.
+ *
+ * Pairs are keyed by caller supplied shape ids (e.g. broadphase proxy ids); the order of the two ids
+ * does not matter. For 2D shapes the cache stores which shape owns the axis and the axis index, so the
+ * axis follows the shape as it rotates. For cubes it stores the world space axis vector.
+ *
+ * Entries live in an open addressed table with primitive long keys. When the table would grow past
+ * its maximum size it is cleared instead, so the cache's memory stays bounded as pairs come and go.
+ * Call {@link #clear()} when shape ids are reused for different shapes. Not thread safe; give each
+ * thread its own cache.
+ *
+ * @author Matt Stone
+ */
+public class SeparatingAxisCache
+{
+	private static final int NO_AXIS = -1;
+
+	/** the most pairs remembered by caches made with the default constructor */
+	public static int defaultMaxPairs = 1 << 16;
+
+	private final int maxPairs;
+
+	private long[] keys = new long[64];
+	private boolean[] used = new boolean[64];
+	private int[] axisOwner = new int[64]; // 2D: id of the shape whose axis separated the pair
+	private int[] axisIndex = new int[64]; // 2D: index into the owner's axes; NO_AXIS if the pair collided
+	private float[] axisVectors = new float[64 * 3]; // 3D: separating axis as x,y,z; zero if the pair collided
+	private int size = 0;
+
+	public SeparatingAxisCache()
+	{
+		this(defaultMaxPairs);
+	}
+
+	/**
+	 * @param maxPairs the most pairs to remember before the cache is cleared.
+	 */
+	public SeparatingAxisCache(int maxPairs)
+	{
+		if (maxPairs <= 0)
+		{
+			throw new IllegalArgumentException("maxPairs must be positive");
+		}
+		this.maxPairs = maxPairs;
+	}
+
+	/**
+	 * SAT.PolygonCollide_2D on two convex polygons, testing the pair's last separating axis first.
+	 *
+	 * @param id1 id of obj1
+	 * @param id2 id of obj2
+	 * @return true if the polygons overlap.
+	 */
+	public boolean PolygonCollide_2D(SatContext2D context, int id1, ConvexPolygon2D obj1, int id2, ConvexPolygon2D obj2)
+	{
+		int slot = findOrAdd(id1, id2);
+		if (separatedByCachedAxis(context, slot, id1, obj1, obj2))
+		{
+			return false;
+		}
+		boolean collision = SAT.PolygonCollide_2D(context, obj1, obj2);
+		store2D(context, slot, id1, obj1, id2);
+		return collision;
+	}
+
+	/**
+	 * SAT.PolygonCollide_2D_mtv on two convex polygons, testing the pair's last separating axis
+	 * first.
+	 *
+	 * @param id1 id of obj1
+	 * @param id2 id of obj2
+	 * @param mtvBuffer receives the vector that moves obj1 out of obj2; set to zero if there is no
+	 *            collision.
+	 * @return true if the polygons overlap.
+	 */
+	public boolean PolygonCollide_2D_mtv(SatContext2D context, int id1, ConvexPolygon2D obj1, int id2, ConvexPolygon2D obj2, Vector2 mtvBuffer)
+	{
+		int slot = findOrAdd(id1, id2);
+		if (separatedByCachedAxis(context, slot, id1, obj1, obj2))
+		{
+			mtvBuffer.set(0, 0);
+			return false;
+		}
+		boolean collision = SAT.PolygonCollide_2D_mtv(context, obj1, obj2, mtvBuffer);
+		store2D(context, slot, id1, obj1, id2);
+		return collision;
+	}
+
+	/**
+	 * SAT3D.CubeCollide_3D_mtv, testing the pair's last separating axis first.
+	 *
+	 * @param id1 id of the first cube
+	 * @param id2 id of the second cube
+	 * @param mtvBuffer receives the vector that moves the first cube out of the second; set to zero if
+	 *            there is no collision.
+	 * @return true if the cubes overlap.
+	 */
+	public boolean CubeCollide_3D_mtv(SatContext3D context, int id1, Vector3[] obj1Vertices, int id2, Vector3[] obj2Vertices, Vector3 mtvBuffer)
+	{
+		int slot = findOrAdd(id1, id2);
+		Vector3 axis = context.temp1.set(axisVectors[3 * slot], axisVectors[3 * slot + 1], axisVectors[3 * slot + 2]);
+		if (!axis.isZero() && SAT3D.separates(obj1Vertices, obj2Vertices, axis))
+		{
+			mtvBuffer.set(0, 0, 0);
+			return false;
+		}
+		boolean collision = SAT3D.CubeCollide_3D_mtv(context, obj1Vertices, obj2Vertices, mtvBuffer);
+
+		Vector3 separatingAxis = context.separatingAxis;
+		axisVectors[3 * slot] = separatingAxis.x;
+		axisVectors[3 * slot + 1] = separatingAxis.y;
+		axisVectors[3 * slot + 2] = separatingAxis.z;
+		return collision;
+	}
+
+	/**
+	 * @return the number of pairs remembered.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Forgets every pair.
+	 */
+	public void clear()
+	{
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	private boolean separatedByCachedAxis(SatContext2D context, int slot, int id1, ConvexPolygon2D obj1, ConvexPolygon2D obj2)
+	{
+		int index = axisIndex[slot];
+		if (index == NO_AXIS)
+		{
+			return false;
+		}
+		float[] axes = axisOwner[slot] == id1 ? obj1.getWorldAxes() : obj2.getWorldAxes();
+		return SAT.separates(context, obj1, obj2, axes[2 * index], axes[2 * index + 1]);
+	}
+
+	private void store2D(SatContext2D context, int slot, int id1, ConvexPolygon2D obj1, int id2)
+	{
+		int separatingAxis = context.separatingAxis;
+		if (separatingAxis == NO_AXIS)
+		{
+			axisIndex[slot] = NO_AXIS;
+		}
+		else if (separatingAxis < obj1.getAxisCount())
+		{
+			axisOwner[slot] = id1;
+			axisIndex[slot] = separatingAxis;
+		}
+		else
+		{
+			axisOwner[slot] = id2;
+			axisIndex[slot] = separatingAxis - obj1.getAxisCount();
+		}
+	}
+
+	/* ------------------------------- TABLE ----------------------------- */
+
+	private static long key(int id1, int id2)
+	{
+		int low = Math.min(id1, id2), high = Math.max(id1, id2);
+		return ((long) high << 32) | (low & 0xFFFFFFFFL);
+	}
+
+	private static int hash(long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * @return the slot of the pair, added with no remembered axis if it was not in the table.
+	 */
+	private int findOrAdd(int id1, int id2)
+	{
+		long key = key(id1, id2);
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		while (used[slot])
+		{
+			if (keys[slot] == key)
+			{
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if (size >= maxPairs)
+		{
+			clear();
+		}
+		else if ((size + 1) * 2 > keys.length)
+		{
+			grow();
+		}
+		else
+		{
+			return add(slot, key);
+		}
+
+		// the table changed, find a new free slot
+		mask = keys.length - 1;
+		slot = hash(key) & mask;
+		while (used[slot])
+		{
+			slot = (slot + 1) & mask;
+		}
+		return add(slot, key);
+	}
+
+	private int add(int slot, long key)
+	{
+		used[slot] = true;
+		keys[slot] = key;
+		axisIndex[slot] = NO_AXIS;
+		axisVectors[3 * slot] = 0;
+		axisVectors[3 * slot + 1] = 0;
+		axisVectors[3 * slot + 2] = 0;
+		++size;
+		return slot;
+	}
+
+	private void grow()
+	{
+		long[] oldKeys = keys;
+		boolean[] oldUsed = used;
+		int[] oldOwner = axisOwner;
+		int[] oldIndex = axisIndex;
+		float[] oldVectors = axisVectors;
+
+		int capacity = oldKeys.length * 2;
+		keys = new long[capacity];
+		used = new boolean[capacity];
+		axisOwner = new int[capacity];
+		axisIndex = new int[capacity];
+		axisVectors = new float[capacity * 3];
+
+		int mask = capacity - 1;
+		for (int oldSlot = 0; oldSlot < oldKeys.length; ++oldSlot)
+		{
+			if (!oldUsed[oldSlot])
+			{
+				continue;
+			}
+			int slot = hash(oldKeys[oldSlot]) & mask;
+			while (used[slot])
+			{
+				slot = (slot + 1) & mask;
+			}
+			used[slot] = true;
+			keys[slot] = oldKeys[oldSlot];
+			axisOwner[slot] = oldOwner[oldSlot];
+			axisIndex[slot] = oldIndex[oldSlot];
+			System.arraycopy(oldVectors, 3 * oldSlot, axisVectors, 3 * slot, 3);
+		}
+	}
+}
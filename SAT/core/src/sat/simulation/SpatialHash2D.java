@@ -0,0 +1,385 @@
+package sat.simulation;
+
+import java.util.Arrays;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Uniform grid broadphase for 2D worlds full of similarly sized shapes.
+ *
+ * Each proxy is added to every grid cell its bounds touch. Two proxies can only overlap if they share
+ * a cell, so pairs are found by looking at the proxies within each cell. The z bounds are ignored;
+ * bounds come from {@link Aabb#fromVertices2D}, e.g. of Polygon.getTransformedVertices().
+ *
+ * The cell table is open addressed with primitive long keys (the packed cell coordinates), and each
+ * cell holds a linked list of entries stored in int arrays, so no keys are boxed and nothing is
+ * allocated once the tables have grown to fit the world.
+ *
+ * A pair of proxies that share several cells is only reported from one of them: the lowest cell of
+ * the intersection of their cell ranges. This removes duplicates without a set of seen pairs.
+ *
+ * There are two modes. By default every proxy is reinserted when pairs are computed, which is best
+ * when most shapes move every frame. In incremental mode a proxy is only moved between cells when
+ * its cell range changes, which is best when most shapes are still.
+ *
+ * Not thread safe.
+ *
+ * @author Matt Stone
+ */
+public class SpatialHash2D implements Broadphase
+{
+	private static final int NONE = -1;
+
+	private final float cellSize;
+	private final float inverseCellSize;
+	private final boolean incremental;
+
+	// per proxy data
+	private float[] bounds = new float[16 * Aabb.SIZE];
+	private int[] cellRanges = new int[16 * 4]; // minCellX, minCellY, maxCellX, maxCellY
+	private boolean[] alive = new boolean[16];
+	private int proxyCapacityUsed = 0;
+	private IntArray freeProxies = new IntArray();
+
+	// cell table, open addressed with linear probing
+	private long[] cellKeys = new long[64];
+	private int[] cellHeads = new int[64];
+	private boolean[] cellUsed = new boolean[64];
+	private int cellsUsed = 0;
+
+	// entries, each is one proxy in one cell. Unused entries are chained through entryNext.
+	private int[] entryProxy = new int[64];
+	private int[] entryNext = new int[64];
+	private int entryCapacityUsed = 0;
+	private int freeEntry = NONE;
+
+	/**
+	 * @param cellSize width and height of a grid cell. Around the size of a typical shape works well.
+	 * @param incremental true to only reinsert proxies whose cell range changed, false to reinsert
+	 *            every proxy each time pairs are computed.
+	 */
+	public SpatialHash2D(float cellSize, boolean incremental)
+	{
+		if (!(cellSize > 0))
+		{
+			throw new IllegalArgumentException("cell size must be positive");
+		}
+		this.cellSize = cellSize;
+		this.inverseCellSize = 1 / cellSize;
+		this.incremental = incremental;
+	}
+
+	public float getCellSize()
+	{
+		return cellSize;
+	}
+
+	@Override
+	public int createProxy(float[] aabb)
+	{
+		int proxy;
+		if (freeProxies.size > 0)
+		{
+			proxy = freeProxies.pop();
+		}
+		else
+		{
+			proxy = proxyCapacityUsed++;
+			ensureProxyCapacity(proxyCapacityUsed);
+		}
+		alive[proxy] = true;
+		System.arraycopy(aabb, 0, bounds, proxy * Aabb.SIZE, Aabb.SIZE);
+		computeCellRange(proxy);
+		if (incremental)
+		{
+			insert(proxy);
+		}
+		return proxy;
+	}
+
+	@Override
+	public void moveProxy(int proxy, float[] aabb)
+	{
+		System.arraycopy(aabb, 0, bounds, proxy * Aabb.SIZE, Aabb.SIZE);
+		if (!incremental)
+		{
+			computeCellRange(proxy);
+			return;
+		}
+
+		int offset = proxy * 4;
+		int minCellX = cellRanges[offset], minCellY = cellRanges[offset + 1];
+		int maxCellX = cellRanges[offset + 2], maxCellY = cellRanges[offset + 3];
+		computeCellRange(proxy);
+		if (minCellX != cellRanges[offset] || minCellY != cellRanges[offset + 1] || maxCellX != cellRanges[offset + 2] || maxCellY != cellRanges[offset + 3])
+		{
+			remove(proxy, minCellX, minCellY, maxCellX, maxCellY);
+			insert(proxy);
+		}
+	}
+
+	@Override
+	public void destroyProxy(int proxy)
+	{
+		if (proxy < 0 || proxy >= proxyCapacityUsed || !alive[proxy])
+		{
+			throw new IllegalArgumentException("no such proxy: " + proxy);
+		}
+		if (incremental)
+		{
+			int offset = proxy * 4;
+			remove(proxy, cellRanges[offset], cellRanges[offset + 1], cellRanges[offset + 2], cellRanges[offset + 3]);
+		}
+		alive[proxy] = false;
+		freeProxies.add(proxy);
+	}
+
+	@Override
+	public int computePairs(IntArray pairs)
+	{
+		pairs.clear();
+		if (!incremental)
+		{
+			clearCells();
+			for (int proxy = 0; proxy < proxyCapacityUsed; ++proxy)
+			{
+				if (alive[proxy])
+				{
+					insert(proxy);
+				}
+			}
+		}
+
+		for (int slot = 0; slot < cellKeys.length; ++slot)
+		{
+			if (!cellUsed[slot])
+			{
+				continue;
+			}
+			int cellX = (int) (cellKeys[slot] >> 32);
+			int cellY = (int) cellKeys[slot];
+			for (int entry = cellHeads[slot]; entry != NONE; entry = entryNext[entry])
+			{
+				int proxy = entryProxy[entry];
+				for (int otherEntry = entryNext[entry]; otherEntry != NONE; otherEntry = entryNext[otherEntry])
+				{
+					int other = entryProxy[otherEntry];
+					if (isFirstSharedCell(proxy, other, cellX, cellY) && overlaps2D(proxy, other))
+					{
+						pairs.add(Math.min(proxy, other));
+						pairs.add(Math.max(proxy, other));
+					}
+				}
+			}
+		}
+		return pairs.size / 2;
+	}
+
+	/**
+	 * Whether a cell is the lowest cell of the intersection of two proxies' cell ranges. Every pair
+	 * that shares cells has exactly one such cell, so reporting the pair only there removes duplicates.
+	 */
+	private boolean isFirstSharedCell(int proxy, int other, int cellX, int cellY)
+	{
+		int firstX = Math.max(cellRanges[proxy * 4], cellRanges[other * 4]);
+		int firstY = Math.max(cellRanges[proxy * 4 + 1], cellRanges[other * 4 + 1]);
+		return cellX == firstX && cellY == firstY;
+	}
+
+	private boolean overlaps2D(int proxy, int other)
+	{
+		int a = proxy * Aabb.SIZE, b = other * Aabb.SIZE;
+		return bounds[a + Aabb.MIN_X] <= bounds[b + Aabb.MAX_X] && bounds[b + Aabb.MIN_X] <= bounds[a + Aabb.MAX_X]
+				&& bounds[a + Aabb.MIN_Y] <= bounds[b + Aabb.MAX_Y] && bounds[b + Aabb.MIN_Y] <= bounds[a + Aabb.MAX_Y];
+	}
+
+	private void computeCellRange(int proxy)
+	{
+		int b = proxy * Aabb.SIZE, offset = proxy * 4;
+		cellRanges[offset] = (int) Math.floor(bounds[b + Aabb.MIN_X] * inverseCellSize);
+		cellRanges[offset + 1] = (int) Math.floor(bounds[b + Aabb.MIN_Y] * inverseCellSize);
+		cellRanges[offset + 2] = (int) Math.floor(bounds[b + Aabb.MAX_X] * inverseCellSize);
+		cellRanges[offset + 3] = (int) Math.floor(bounds[b + Aabb.MAX_Y] * inverseCellSize);
+	}
+
+	private void insert(int proxy)
+	{
+		int offset = proxy * 4;
+		for (int cellX = cellRanges[offset]; cellX <= cellRanges[offset + 2]; ++cellX)
+		{
+			for (int cellY = cellRanges[offset + 1]; cellY <= cellRanges[offset + 3]; ++cellY)
+			{
+				int slot = findOrAddCell(cellX, cellY);
+				int entry = newEntry();
+				entryProxy[entry] = proxy;
+				entryNext[entry] = cellHeads[slot];
+				cellHeads[slot] = entry;
+			}
+		}
+	}
+
+	private void remove(int proxy, int minCellX, int minCellY, int maxCellX, int maxCellY)
+	{
+		for (int cellX = minCellX; cellX <= maxCellX; ++cellX)
+		{
+			for (int cellY = minCellY; cellY <= maxCellY; ++cellY)
+			{
+				int slot = findCell(cellX, cellY);
+				int previous = NONE;
+				for (int entry = cellHeads[slot]; entry != NONE; previous = entry, entry = entryNext[entry])
+				{
+					if (entryProxy[entry] == proxy)
+					{
+						if (previous == NONE)
+						{
+							cellHeads[slot] = entryNext[entry];
+						}
+						else
+						{
+							entryNext[previous] = entryNext[entry];
+						}
+						entryNext[entry] = freeEntry;
+						freeEntry = entry;
+						break;
+					}
+				}
+				// the empty cell stays in the table, it is dropped the next time the table is rehashed
+			}
+		}
+	}
+
+	/* ------------------------------- CELL TABLE ----------------------------- */
+
+	private static long cellKey(int cellX, int cellY)
+	{
+		return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+	}
+
+	private static int hash(long key)
+	{
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * @return the slot of the cell, which must exist.
+	 */
+	private int findCell(int cellX, int cellY)
+	{
+		long key = cellKey(cellX, cellY);
+		int mask = cellKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (!cellUsed[slot] || cellKeys[slot] != key)
+		{
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private int findOrAddCell(int cellX, int cellY)
+	{
+		// keep the table at most half full so probes stay short
+		if ((cellsUsed + 1) * 2 > cellKeys.length)
+		{
+			rehash();
+		}
+		long key = cellKey(cellX, cellY);
+		int mask = cellKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (cellUsed[slot])
+		{
+			if (cellKeys[slot] == key)
+			{
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		cellUsed[slot] = true;
+		cellKeys[slot] = key;
+		cellHeads[slot] = NONE;
+		++cellsUsed;
+		return slot;
+	}
+
+	/**
+	 * Rebuilds the table without its empty cells, doubling it if it is still too full.
+	 */
+	private void rehash()
+	{
+		long[] oldKeys = cellKeys;
+		int[] oldHeads = cellHeads;
+		boolean[] oldUsed = cellUsed;
+
+		int nonEmpty = 0;
+		for (int slot = 0; slot < oldKeys.length; ++slot)
+		{
+			if (oldUsed[slot] && oldHeads[slot] != NONE)
+			{
+				++nonEmpty;
+			}
+		}
+		int capacity = oldKeys.length;
+		while ((nonEmpty + 1) * 4 > capacity)
+		{
+			capacity *= 2;
+		}
+
+		cellKeys = new long[capacity];
+		cellHeads = new int[capacity];
+		cellUsed = new boolean[capacity];
+		cellsUsed = 0;
+		int mask = capacity - 1;
+		for (int oldSlot = 0; oldSlot < oldKeys.length; ++oldSlot)
+		{
+			if (oldUsed[oldSlot] && oldHeads[oldSlot] != NONE)
+			{
+				int slot = hash(oldKeys[oldSlot]) & mask;
+				while (cellUsed[slot])
+				{
+					slot = (slot + 1) & mask;
+				}
+				cellUsed[slot] = true;
+				cellKeys[slot] = oldKeys[oldSlot];
+				cellHeads[slot] = oldHeads[oldSlot];
+				++cellsUsed;
+			}
+		}
+	}
+
+	private void clearCells()
+	{
+		Arrays.fill(cellUsed, false);
+		cellsUsed = 0;
+		entryCapacityUsed = 0;
+		freeEntry = NONE;
+	}
+
+	/* ------------------------------- STORAGE ----------------------------- */
+
+	private int newEntry()
+	{
+		if (freeEntry != NONE)
+		{
+			int entry = freeEntry;
+			freeEntry = entryNext[entry];
+			return entry;
+		}
+		if (entryCapacityUsed == entryProxy.length)
+		{
+			entryProxy = Arrays.copyOf(entryProxy, entryProxy.length * 2);
+			entryNext = Arrays.copyOf(entryNext, entryNext.length * 2);
+		}
+		return entryCapacityUsed++;
+	}
+
+	private void ensureProxyCapacity(int capacity)
+	{
+		if (capacity > alive.length)
+		{
+			int newCapacity = Math.max(capacity, alive.length * 2);
+			bounds = Arrays.copyOf(bounds, newCapacity * Aabb.SIZE);
+			cellRanges = Arrays.copyOf(cellRanges, newCapacity * 4);
+			alive = Arrays.copyOf(alive, newCapacity);
+		}
+	}
+}
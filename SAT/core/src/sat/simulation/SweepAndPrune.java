@@ -0,0 +1,293 @@
+package sat.simulation;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Sweep and prune broadphase.
+ *
+ * Every proxy contributes a min and a max endpoint to a sorted list per axis. Between frames objects
+ * only move a little, so the lists are nearly sorted already and an insertion sort puts them back in
+ * order in close to linear time. Pairs are found by sweeping the axis where the objects are most
+ * spread out: a proxy becomes active at its min endpoint and inactive at its max endpoint, and it is
+ * checked against every active proxy on the way.
+ *
+ * Works for 2D polygons (bounds from {@link Aabb#fromVertices2D}, with a 2 dimensional instance)
+ * and CubeInstance boxes (bounds from {@link Aabb#fromVertices3D}). The pair list has the same layout
+ * SATBatch2D takes, so it can be handed straight to the narrowphase. Not thread safe.
+ *
+ * @author Matt Stone
+ */
+public class SweepAndPrune implements Broadphase
+{
+	private final int axes;
+
+	// per proxy bounds, Aabb.SIZE floats each
+	private float[] bounds = new float[16 * Aabb.SIZE];
+	private boolean[] alive = new boolean[16];
+	private int proxyCapacityUsed = 0;
+	private IntArray freeProxies = new IntArray();
+	private int proxyCount = 0;
+
+	// per axis endpoint lists; an endpoint is (proxy << 1) | 1 for max, (proxy << 1) for min
+	private int[][] endpoints;
+	private float[][] endpointValues;
+	private int endpointCount = 0;
+
+	// proxies overlapping the sweep line, and each proxy's index within it
+	private int[] active = new int[16];
+	private int[] activeIndex = new int[16];
+
+	/**
+	 * A broadphase for 3D bounds.
+	 */
+	public SweepAndPrune()
+	{
+		this(3);
+	}
+
+	/**
+	 * @param dimensions 2 to only sort and sweep the x and y axes (the z bounds of 2D shapes are all
+	 *            0, sorting them would be wasted work), or 3.
+	 */
+	public SweepAndPrune(int dimensions)
+	{
+		if (dimensions != 2 && dimensions != 3)
+		{
+			throw new IllegalArgumentException("dimensions must be 2 or 3");
+		}
+		this.axes = dimensions;
+		this.endpoints = new int[axes][32];
+		this.endpointValues = new float[axes][32];
+	}
+
+	@Override
+	public int createProxy(float[] aabb)
+	{
+		int proxy;
+		if (freeProxies.size > 0)
+		{
+			proxy = freeProxies.pop();
+		}
+		else
+		{
+			proxy = proxyCapacityUsed++;
+			ensureProxyCapacity(proxyCapacityUsed);
+		}
+		alive[proxy] = true;
+		System.arraycopy(aabb, 0, bounds, proxy * Aabb.SIZE, Aabb.SIZE);
+		++proxyCount;
+
+		// append the endpoints, the next sort moves them into place
+		ensureEndpointCapacity(endpointCount + 2);
+		for (int axis = 0; axis < axes; ++axis)
+		{
+			endpoints[axis][endpointCount] = proxy << 1;
+			endpoints[axis][endpointCount + 1] = (proxy << 1) | 1;
+		}
+		endpointCount += 2;
+		return proxy;
+	}
+
+	@Override
+	public void moveProxy(int proxy, float[] aabb)
+	{
+		System.arraycopy(aabb, 0, bounds, proxy * Aabb.SIZE, Aabb.SIZE);
+	}
+
+	@Override
+	public void destroyProxy(int proxy)
+	{
+		if (proxy < 0 || proxy >= proxyCapacityUsed || !alive[proxy])
+		{
+			throw new IllegalArgumentException("no such proxy: " + proxy);
+		}
+		alive[proxy] = false;
+		freeProxies.add(proxy);
+		--proxyCount;
+
+		// remove both endpoints while keeping the rest in order
+		for (int axis = 0; axis < axes; ++axis)
+		{
+			int[] list = endpoints[axis];
+			float[] values = endpointValues[axis];
+			int kept = 0;
+			for (int i = 0; i < endpointCount; ++i)
+			{
+				if ((list[i] >>> 1) != proxy)
+				{
+					list[kept] = list[i];
+					values[kept] = values[i];
+					++kept;
+				}
+			}
+		}
+		endpointCount -= 2;
+	}
+
+	/**
+	 * @return the number of live proxies.
+	 */
+	public int size()
+	{
+		return proxyCount;
+	}
+
+	@Override
+	public int computePairs(IntArray pairs)
+	{
+		pairs.clear();
+		if (proxyCount < 2)
+		{
+			return 0;
+		}
+
+		for (int axis = 0; axis < axes; ++axis)
+		{
+			updateEndpointValues(axis);
+			insertionSort(axis);
+		}
+		sweep(chooseSweepAxis(), pairs);
+		return pairs.size / 2;
+	}
+
+	/**
+	 * Copies the current bounds into the endpoint list, the order is kept from the last frame.
+	 */
+	private void updateEndpointValues(int axis)
+	{
+		int[] list = endpoints[axis];
+		float[] values = endpointValues[axis];
+		for (int i = 0; i < endpointCount; ++i)
+		{
+			int endpoint = list[i];
+			int proxy = endpoint >>> 1;
+			boolean isMax = (endpoint & 1) != 0;
+			values[i] = bounds[proxy * Aabb.SIZE + axis + (isMax ? Aabb.MAX_X : Aabb.MIN_X)];
+		}
+	}
+
+	/**
+	 * Insertion sort is O(n) on a list that is already nearly sorted, which is the common case since
+	 * objects move little between frames. Equal values put min endpoints first so boxes that only
+	 * touch are reported as overlapping.
+	 */
+	private void insertionSort(int axis)
+	{
+		int[] list = endpoints[axis];
+		float[] values = endpointValues[axis];
+		for (int i = 1; i < endpointCount; ++i)
+		{
+			int endpoint = list[i];
+			float value = values[i];
+			int j = i - 1;
+			while (j >= 0 && (values[j] > value || (values[j] == value && (list[j] & 1) > (endpoint & 1))))
+			{
+				list[j + 1] = list[j];
+				values[j + 1] = values[j];
+				--j;
+			}
+			list[j + 1] = endpoint;
+			values[j + 1] = value;
+		}
+	}
+
+	/**
+	 * The axis with the largest variance of box centers separates the boxes best, so the sweep along
+	 * it has the fewest proxies active at once.
+	 */
+	private int chooseSweepAxis()
+	{
+		int bestAxis = 0;
+		float bestVariance = -1;
+		for (int axis = 0; axis < axes; ++axis)
+		{
+			float sum = 0, sumSquared = 0;
+			for (int proxy = 0; proxy < proxyCapacityUsed; ++proxy)
+			{
+				if (alive[proxy])
+				{
+					int offset = proxy * Aabb.SIZE + axis;
+					float center = (bounds[offset + Aabb.MIN_X] + bounds[offset + Aabb.MAX_X]) * 0.5f;
+					sum += center;
+					sumSquared += center * center;
+				}
+			}
+			float mean = sum / proxyCount;
+			float variance = sumSquared / proxyCount - mean * mean;
+			if (variance > bestVariance)
+			{
+				bestVariance = variance;
+				bestAxis = axis;
+			}
+		}
+		return bestAxis;
+	}
+
+	private void sweep(int axis, IntArray pairs)
+	{
+		int[] list = endpoints[axis];
+		int activeCount = 0;
+		for (int i = 0; i < endpointCount; ++i)
+		{
+			int endpoint = list[i];
+			int proxy = endpoint >>> 1;
+			if ((endpoint & 1) == 0)
+			{
+				// entering; already overlaps every active proxy on this axis, check the others
+				for (int a = 0; a < activeCount; ++a)
+				{
+					int other = active[a];
+					if (Aabb.overlaps(bounds, proxy * Aabb.SIZE, bounds, other * Aabb.SIZE))
+					{
+						pairs.add(Math.min(proxy, other));
+						pairs.add(Math.max(proxy, other));
+					}
+				}
+				active[activeCount] = proxy;
+				activeIndex[proxy] = activeCount;
+				++activeCount;
+			}
+			else
+			{
+				// leaving; swap the last active proxy into its slot
+				int index = activeIndex[proxy];
+				int last = active[--activeCount];
+				active[index] = last;
+				activeIndex[last] = index;
+			}
+		}
+	}
+
+	private void ensureProxyCapacity(int capacity)
+	{
+		if (capacity > alive.length)
+		{
+			int newCapacity = Math.max(capacity, alive.length * 2);
+			float[] newBounds = new float[newCapacity * Aabb.SIZE];
+			System.arraycopy(bounds, 0, newBounds, 0, bounds.length);
+			bounds = newBounds;
+			boolean[] newAlive = new boolean[newCapacity];
+			System.arraycopy(alive, 0, newAlive, 0, alive.length);
+			alive = newAlive;
+			active = new int[newCapacity];
+			activeIndex = new int[newCapacity];
+		}
+	}
+
+	private void ensureEndpointCapacity(int capacity)
+	{
+		if (capacity > endpoints[0].length)
+		{
+			int newCapacity = Math.max(capacity, endpoints[0].length * 2);
+			for (int axis = 0; axis < axes; ++axis)
+			{
+				int[] newList = new int[newCapacity];
+				System.arraycopy(endpoints[axis], 0, newList, 0, endpointCount);
+				endpoints[axis] = newList;
+				float[] newValues = new float[newCapacity];
+				System.arraycopy(endpointValues[axis], 0, newValues, 0, endpointCount);
+				endpointValues[axis] = newValues;
+			}
+		}
+	}
+}
@@ -9,6 +9,7 @@ import com.badlogic.gdx.graphics.g3d.ModelBatch;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 
 public class WrappedCubeModel
@@ -59,8 +60,24 @@ public class WrappedCubeModel
 		public final float cubeHeight;
 		public final float cubeDepth;
 		private ModelInstance cube;
-		private Vector3[] vertices;
-		private Vector3[] transformedVertices;
+		private float[] vertices; // local corners as x,y,z triples
+
+		// Everything below is derived from the transform and only recomputed when it changes. The
+		// transform is a public Matrix4 that is edited in place (translate, rotate, set...), so
+		// there is nothing to hook; instead the values it had at the last update are kept, and 16
+		// float compares decide whether the 8 corners, the bounds and the box need redoing.
+		// Not thread safe: that redo happens in place on whichever thread asks first, so a cube must
+		// not be read from more than one thread at a time unless it was read (e.g. getVersion()) since
+		// its transform last changed, and the transform stays put until every thread is done.
+		private final float[] transformSnapshot = new float[16];
+		private boolean dirty = true;
+		private int version = 0;
+		private final float[] transformedCorners = new float[24];
+		private final Vector3[] transformedVertices = new Vector3[8];
+		private final float[] aabb = new float[Aabb.SIZE];
+		private final float[] center = new float[3];
+		private final float[] obbAxes = new float[9];
+		private final float[] obbExtents = new float[3];
 
 		private CubeInstance(float cubeWidth, float cubeHeight, float cubeDepth, ModelInstance cube)
 		{
@@ -68,26 +85,26 @@ public class WrappedCubeModel
 			this.cubeHeight = cubeHeight;
 			this.cubeDepth = cubeDepth;
 			this.cube = cube;
-			this.vertices = new Vector3[8];
-			this.transformedVertices = new Vector3[8];
 			
 			for(int i = 0; i < 8; ++i)
 			{
-				vertices[i] = new Vector3();
 				transformedVertices[i] = new Vector3();
 			}
 			
-			//front face 
-			vertices[0].set(cubeDepth/2, cubeHeight/2, cubeDepth/2); //top right
-			vertices[1].set(-cubeDepth/2, cubeHeight/2, cubeDepth/2); //top left
-			vertices[2].set(-cubeDepth/2, -cubeHeight/2, cubeDepth/2); //bottom left
-			vertices[3].set(cubeDepth/2, -cubeHeight/2, cubeDepth/2); //bottom right
-			
-			//rear face
-			vertices[4].set(cubeDepth/2, cubeHeight/2, -cubeDepth/2); //top right
-			vertices[5].set(-cubeDepth/2, cubeHeight/2, -cubeDepth/2); //top left
-			vertices[6].set(-cubeDepth/2, -cubeHeight/2, -cubeDepth/2); //bottom left
-			vertices[7].set(cubeDepth/2, -cubeHeight/2, -cubeDepth/2); //bottom right
+			//@formatter:off
+			this.vertices = new float[] {
+				//front face 
+				cubeWidth/2, cubeHeight/2, cubeDepth/2, //top right
+				-cubeWidth/2, cubeHeight/2, cubeDepth/2, //top left
+				-cubeWidth/2, -cubeHeight/2, cubeDepth/2, //bottom left
+				cubeWidth/2, -cubeHeight/2, cubeDepth/2, //bottom right
+				
+				//rear face
+				cubeWidth/2, cubeHeight/2, -cubeDepth/2, //top right
+				-cubeWidth/2, cubeHeight/2, -cubeDepth/2, //top left
+				-cubeWidth/2, -cubeHeight/2, -cubeDepth/2, //bottom left
+				cubeWidth/2, -cubeHeight/2, -cubeDepth/2 //bottom right
+			}; //@formatter:on
 		}
 		
 		public void render(ModelBatch modelBatch, Environment environment)
@@ -104,16 +121,132 @@ public class WrappedCubeModel
 			
 		}
 		
+		/**
+		 * @return world space corners. Owned by this cube, do not modify.
+		 */
 		public Vector3[] getTransformVertices()
 		{
-			for(int i = 0; i < vertices.length; ++i)
+			update();
+			return transformedVertices;
+		}
+
+		/**
+		 * Copies the world space corners into a flat array, in the same order as
+		 * getTransformVertices(), for SAT3D's packed cube path.
+		 * 
+		 * @param out receives the 8 corners as x,y,z triples; at least 24 floats.
+		 * @return out
+		 */
+		public float[] getTransformVertices(float[] out)
+		{
+			update();
+			System.arraycopy(transformedCorners, 0, out, 0, transformedCorners.length);
+			return out;
+		}
+
+		/**
+		 * @return world space corners as x,y,z triples. Owned by this cube, do not modify.
+		 */
+		public float[] getCorners()
+		{
+			update();
+			return transformedCorners;
+		}
+
+		/**
+		 * @return world space bounds, laid out as in Aabb. Owned by this cube, do not modify.
+		 */
+		public float[] getAabb()
+		{
+			update();
+			return aabb;
+		}
+
+		/**
+		 * @return the world space center as x,y,z. Owned by this cube, do not modify.
+		 */
+		public float[] getCenter()
+		{
+			update();
+			return center;
+		}
+
+		/**
+		 * @return the unit face axes as x,y,z triples, for SAT3D's box path. Owned by this cube, do
+		 *         not modify.
+		 */
+		public float[] getObbAxes()
+		{
+			update();
+			return obbAxes;
+		}
+
+		/**
+		 * @return half the width, height and depth, scaled by the transform. Owned by this cube, do
+		 *         not modify.
+		 */
+		public float[] getObbExtents()
+		{
+			update();
+			return obbExtents;
+		}
+
+		/**
+		 * @return a number that changes every time the corners, bounds and box are recomputed, so
+		 *         callers can tell whether the cube has moved since they last looked.
+		 */
+		public int getVersion()
+		{
+			update();
+			return version;
+		}
+
+		/**
+		 * Forces everything derived from the transform to be recomputed the next time it is used.
+		 * Not needed after editing the transform; that is noticed on its own.
+		 */
+		public void dirty()
+		{
+			dirty = true;
+		}
+
+		private void update()
+		{
+			float[] m = cube.transform.val;
+			if (!dirty && !transformChanged(m))
 			{
-				Vector3 vertex = vertices[i];
-				transformedVertices[i].set(vertex);
-				transformedVertices[i].mul(cube.transform);
+				return;
 			}
-			
-			return transformedVertices;
+			System.arraycopy(m, 0, transformSnapshot, 0, 16);
+
+			for(int i = 0; i < vertices.length; i += 3)
+			{
+				float x = vertices[i], y = vertices[i + 1], z = vertices[i + 2];
+				float worldX = x * m[Matrix4.M00] + y * m[Matrix4.M01] + z * m[Matrix4.M02] + m[Matrix4.M03];
+				float worldY = x * m[Matrix4.M10] + y * m[Matrix4.M11] + z * m[Matrix4.M12] + m[Matrix4.M13];
+				float worldZ = x * m[Matrix4.M20] + y * m[Matrix4.M21] + z * m[Matrix4.M22] + m[Matrix4.M23];
+				transformedCorners[i] = worldX;
+				transformedCorners[i + 1] = worldY;
+				transformedCorners[i + 2] = worldZ;
+				transformedVertices[i / 3].set(worldX, worldY, worldZ);
+			}
+			Aabb.fromVertices3D(transformedCorners, aabb);
+			SAT3D.readBox(m, cubeWidth / 2, cubeHeight / 2, cubeDepth / 2, center, obbAxes, obbExtents);
+
+			dirty = false;
+			++version;
+		}
+
+		private boolean transformChanged(float[] m)
+		{
+			for(int i = 0; i < 16; ++i)
+			{
+				if (m[i] != transformSnapshot[i])
+				{
+					return true;
+				}
+			}
+			return false;
 		}
 
 		public ModelInstance model()
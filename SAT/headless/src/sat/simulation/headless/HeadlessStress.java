@@ -0,0 +1,417 @@
+package sat.simulation.headless;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.IntArray;
+
+import sat.simulation.Aabb;
+import sat.simulation.Broadphase;
+import sat.simulation.CollisionDetectors;
+import sat.simulation.CollisionWorld3D;
+import sat.simulation.ConvexPolyhedron;
+import sat.simulation.ConvexPolygon2D;
+import sat.simulation.DynamicAabbTree;
+import sat.simulation.Narrowphase3D;
+import sat.simulation.SAT;
+import sat.simulation.SAT3D;
+import sat.simulation.SatContext2D;
+import sat.simulation.SatContext3D;
+import sat.simulation.SatMetrics;
+import sat.simulation.SeparatingAxisCache;
+import sat.simulation.SpatialHash2D;
+import sat.simulation.SweepAndPrune;
+
+/**
+ * Stress test of the collision pipeline that needs no window or GL context, so it can run on build
+ * machines without a GPU.
+ *
+ * Spawns shapes moving around a walled box and runs a fixed number of ticks as fast as possible.
+ * Each tick moves every shape, updates the broadphase, runs SAT on every candidate pair and pushes
+ * colliding shapes apart by half the MTV each. Prints throughput and tick time percentiles at the
+ * end, plus the SatMetrics counters when run with -Dsat.metrics=true.
+ *
+ * Usage: HeadlessStress [2d|3d|world] [shapes] [ticks] [sap|grid|tree] [cache]
+ *
+ * Passing cache runs the narrowphase through a SeparatingAxisCache. world runs the same 3d scene
+ * as ConvexPolyhedron boxes in a CollisionWorld3D, which does the broadphase, narrowphase and
+ * pushing apart itself; the cache does not apply there.
+ *
+ * @author Matt Stone
+ */
+public class HeadlessStress
+{
+	private static final float TICK = 1 / 60f;
+
+	private final Random random = new Random(1);
+	private final Broadphase broadphase;
+	private final IntArray pairs = new IntArray();
+	private final float[] aabb = new float[Aabb.SIZE];
+	private final float worldSize;
+	private final SeparatingAxisCache cache;
+
+	private long pairsTested = 0;
+	private long collisions = 0;
+
+	// 2D shapes
+	private ConvexPolygon2D[] polygons;
+	private final SatContext2D context2D = new SatContext2D();
+	private final Vector2 mtv2D = new Vector2();
+
+	// 3D shapes; transformed vertices use the CubeInstance vertex mapping
+	private Vector3[] cubeLocal;
+	private Vector3[][] cubeVertices;
+	private Vector3[] positions;
+	private Quaternion[] rotations;
+	private Quaternion spin;
+	private final Matrix4 transform = new Matrix4();
+	private final SatContext3D context3D = new SatContext3D();
+	private final Vector3 mtv3D = new Vector3();
+
+	// world shapes; positions, rotations and velocities are shared with the 3D shapes
+	private CollisionWorld3D<ConvexPolyhedron> world;
+	private ConvexPolyhedron[] bodies;
+
+	private int[] proxies;
+	private int[] proxyShapes; // shape index of each proxy id
+	private float[] velocities;
+
+	public static void main(String[] args)
+	{
+		boolean useWorld = args.length > 0 && args[0].equalsIgnoreCase("world");
+		boolean is3D = useWorld || (args.length > 0 && args[0].equalsIgnoreCase("3d"));
+		int shapes = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+		int ticks = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+		String broadphaseName = args.length > 3 ? args[3] : "sap";
+		boolean useCache = args.length > 4 && args[4].equalsIgnoreCase("cache");
+
+		HeadlessStress stress = useWorld ? new HeadlessStress(shapes, broadphaseName) : new HeadlessStress(is3D, shapes, broadphaseName, useCache);
+		stress.run(is3D, ticks);
+	}
+
+	/**
+	 * The 3d scene run through a CollisionWorld3D.
+	 */
+	public HeadlessStress(int shapes, String broadphaseName)
+	{
+		this.cache = null;
+		this.worldSize = (float) Math.cbrt(shapes * 8.0);
+		this.broadphase = createBroadphase(broadphaseName, true);
+		this.proxies = new int[shapes];
+		this.velocities = new float[shapes * 3];
+		// the world owns the broadphase and maps proxies to shapes itself
+		this.world = new CollisionWorld3D<ConvexPolyhedron>(broadphase, new CollisionDetectors.Polyhedron3D(Narrowphase3D.SAT), CollisionWorld3D.POLYHEDRON_ADAPTER);
+		spawnBodies(shapes);
+	}
+
+	public HeadlessStress(boolean is3D, int shapes, String broadphaseName, boolean useCache)
+	{
+		this.cache = useCache ? new SeparatingAxisCache() : null;
+		// keep the density the same whatever the shape count: one shape per 16 square units in 2d, per
+		// 8 cubic units in 3d
+		this.worldSize = is3D ? (float) Math.cbrt(shapes * 8.0) : (float) Math.sqrt(shapes * 16.0);
+		this.broadphase = createBroadphase(broadphaseName, is3D);
+		this.proxies = new int[shapes];
+		this.velocities = new float[shapes * 3];
+		if (is3D)
+		{
+			spawnCubes(shapes);
+		}
+		else
+		{
+			spawnPolygons(shapes);
+		}
+
+		// proxy ids are not always shape indices, e.g. the tree uses node ids
+		int maxProxy = 0;
+		for (int proxy : proxies)
+		{
+			maxProxy = Math.max(maxProxy, proxy);
+		}
+		this.proxyShapes = new int[maxProxy + 1];
+		for (int i = 0; i < shapes; ++i)
+		{
+			proxyShapes[proxies[i]] = i;
+		}
+	}
+
+	private static Broadphase createBroadphase(String name, boolean is3D)
+	{
+		if (name.equalsIgnoreCase("sap"))
+		{
+			return new SweepAndPrune(is3D ? 3 : 2);
+		}
+		if (name.equalsIgnoreCase("tree"))
+		{
+			return is3D ? new DynamicAabbTree() : new DynamicAabbTree(2, 0.25f);
+		}
+		if (name.equalsIgnoreCase("grid") && !is3D)
+		{
+			return new SpatialHash2D(4, false);
+		}
+		throw new IllegalArgumentException("unknown broadphase " + name + (is3D ? " for 3d" : " for 2d"));
+	}
+
+	/**
+	 * Turns a velocity component around when the shape has left the world on that axis and is still
+	 * heading away from it.
+	 */
+	private void bounce(float position, int velocityIndex)
+	{
+		float velocity = velocities[velocityIndex];
+		if ((position < 0 && velocity < 0) || (position > worldSize && velocity > 0))
+		{
+			velocities[velocityIndex] = -velocity;
+		}
+	}
+
+	/* ------------------------------- 2D ----------------------------- */
+
+	private void spawnPolygons(int count)
+	{
+		polygons = new ConvexPolygon2D[count];
+		for (int i = 0; i < count; ++i)
+		{
+			int vertexCount = 3 + random.nextInt(6);
+			float radius = 0.5f + random.nextFloat();
+			float[] vertices = new float[vertexCount * 2];
+			for (int v = 0; v < vertexCount; ++v)
+			{
+				float angle = MathUtils.PI2 * v / vertexCount;
+				vertices[2 * v] = radius * MathUtils.cos(angle);
+				vertices[2 * v + 1] = radius * MathUtils.sin(angle);
+			}
+			ConvexPolygon2D polygon = new ConvexPolygon2D(vertices);
+			polygon.getPolygon().setPosition(random.nextFloat() * worldSize, random.nextFloat() * worldSize);
+			polygon.getPolygon().setRotation(random.nextFloat() * 360);
+			polygons[i] = polygon;
+
+			velocities[3 * i] = (random.nextFloat() - 0.5f) * 10;
+			velocities[3 * i + 1] = (random.nextFloat() - 0.5f) * 10;
+			velocities[3 * i + 2] = (random.nextFloat() - 0.5f) * 90; // degrees per second
+			proxies[i] = broadphase.createProxy(Aabb.fromVertices2D(polygon.getWorldVertices(), aabb));
+		}
+	}
+
+	private void tick2D()
+	{
+		for (int i = 0; i < polygons.length; ++i)
+		{
+			Polygon polygon = polygons[i].getPolygon();
+			float x = polygon.getX() + velocities[3 * i] * TICK;
+			float y = polygon.getY() + velocities[3 * i + 1] * TICK;
+			bounce(x, 3 * i);
+			bounce(y, 3 * i + 1);
+			polygon.setPosition(x, y);
+			polygon.rotate(velocities[3 * i + 2] * TICK);
+			broadphase.moveProxy(proxies[i], Aabb.fromVertices2D(polygons[i].getWorldVertices(), aabb));
+		}
+
+		int pairCount = broadphase.computePairs(pairs);
+		pairsTested += pairCount;
+		for (int p = 0; p < pairCount; ++p)
+		{
+			int proxy1 = pairs.get(2 * p);
+			int proxy2 = pairs.get(2 * p + 1);
+			ConvexPolygon2D obj1 = polygons[proxyShapes[proxy1]];
+			ConvexPolygon2D obj2 = polygons[proxyShapes[proxy2]];
+			boolean hit = cache != null ? cache.PolygonCollide_2D_mtv(context2D, proxy1, obj1, proxy2, obj2, mtv2D) : SAT.PolygonCollide_2D_mtv(context2D, obj1, obj2, mtv2D);
+			if (hit)
+			{
+				++collisions;
+				mtv2D.scl(0.5f);
+				obj1.getPolygon().translate(mtv2D.x, mtv2D.y);
+				obj2.getPolygon().translate(-mtv2D.x, -mtv2D.y);
+			}
+		}
+	}
+
+	/* ------------------------------- 3D ----------------------------- */
+
+	private void spawnCubes(int count)
+	{
+		//same vertex mapping as CubeInstance: front face 0-3, rear face 4-7
+		float h = 0.5f;
+		cubeLocal = new Vector3[] { new Vector3(h, h, h), new Vector3(-h, h, h), new Vector3(-h, -h, h), new Vector3(h, -h, h),
+				new Vector3(h, h, -h), new Vector3(-h, h, -h), new Vector3(-h, -h, -h), new Vector3(h, -h, -h) };
+		cubeVertices = new Vector3[count][8];
+		positions = new Vector3[count];
+		rotations = new Quaternion[count];
+		spin = new Quaternion(Vector3.Y, 45 * TICK);
+		for (int i = 0; i < count; ++i)
+		{
+			for (int v = 0; v < 8; ++v)
+			{
+				cubeVertices[i][v] = new Vector3();
+			}
+			positions[i] = new Vector3(random.nextFloat() * worldSize, random.nextFloat() * worldSize, random.nextFloat() * worldSize);
+			rotations[i] = new Quaternion(new Vector3(random.nextFloat(), random.nextFloat(), random.nextFloat() + 0.1f).nor(), random.nextFloat() * 360);
+			velocities[3 * i] = (random.nextFloat() - 0.5f) * 4;
+			velocities[3 * i + 1] = (random.nextFloat() - 0.5f) * 4;
+			velocities[3 * i + 2] = (random.nextFloat() - 0.5f) * 4;
+			proxies[i] = broadphase.createProxy(Aabb.fromVertices3D(transformCube(i), aabb));
+		}
+	}
+
+	private Vector3[] transformCube(int cube)
+	{
+		Vector3 position = positions[cube];
+		Quaternion rotation = rotations[cube];
+		transform.set(position.x, position.y, position.z, rotation.x, rotation.y, rotation.z, rotation.w);
+		Vector3[] vertices = cubeVertices[cube];
+		for (int v = 0; v < 8; ++v)
+		{
+			vertices[v].set(cubeLocal[v]).mul(transform);
+		}
+		return vertices;
+	}
+
+	private void tick3D()
+	{
+		for (int i = 0; i < positions.length; ++i)
+		{
+			Vector3 position = positions[i];
+			position.add(velocities[3 * i] * TICK, velocities[3 * i + 1] * TICK, velocities[3 * i + 2] * TICK);
+			for (int axis = 0; axis < 3; ++axis)
+			{
+				bounce(axis == 0 ? position.x : axis == 1 ? position.y : position.z, 3 * i + axis);
+			}
+			rotations[i].mulLeft(spin).nor();
+			broadphase.moveProxy(proxies[i], Aabb.fromVertices3D(transformCube(i), aabb));
+		}
+
+		int pairCount = broadphase.computePairs(pairs);
+		pairsTested += pairCount;
+		for (int p = 0; p < pairCount; ++p)
+		{
+			int proxy1 = pairs.get(2 * p);
+			int proxy2 = pairs.get(2 * p + 1);
+			int cube1 = proxyShapes[proxy1];
+			int cube2 = proxyShapes[proxy2];
+			boolean hit = cache != null ? cache.CubeCollide_3D_mtv(context3D, proxy1, cubeVertices[cube1], proxy2, cubeVertices[cube2], mtv3D)
+					: SAT3D.CubeCollide_3D_mtv(context3D, cubeVertices[cube1], cubeVertices[cube2], mtv3D);
+			if (hit)
+			{
+				++collisions;
+				// vertices are refreshed next tick, the broadphase picks up the move then
+				mtv3D.scl(0.5f);
+				positions[cube1].add(mtv3D);
+				positions[cube2].sub(mtv3D);
+			}
+		}
+	}
+
+	/* ------------------------------- WORLD ----------------------------- */
+
+	private void spawnBodies(int count)
+	{
+		bodies = new ConvexPolyhedron[count];
+		positions = new Vector3[count];
+		rotations = new Quaternion[count];
+		spin = new Quaternion(Vector3.Y, 45 * TICK);
+		for (int i = 0; i < count; ++i)
+		{
+			positions[i] = new Vector3(random.nextFloat() * worldSize, random.nextFloat() * worldSize, random.nextFloat() * worldSize);
+			rotations[i] = new Quaternion(new Vector3(random.nextFloat(), random.nextFloat(), random.nextFloat() + 0.1f).nor(), random.nextFloat() * 360);
+			velocities[3 * i] = (random.nextFloat() - 0.5f) * 4;
+			velocities[3 * i + 1] = (random.nextFloat() - 0.5f) * 4;
+			velocities[3 * i + 2] = (random.nextFloat() - 0.5f) * 4;
+			bodies[i] = ConvexPolyhedron.box(0.5f, 0.5f, 0.5f);
+			setBodyTransform(i);
+			world.add(bodies[i], false);
+		}
+	}
+
+	private void setBodyTransform(int body)
+	{
+		Vector3 position = positions[body];
+		Quaternion rotation = rotations[body];
+		transform.set(position.x, position.y, position.z, rotation.x, rotation.y, rotation.z, rotation.w);
+		bodies[body].setTransform(transform);
+	}
+
+	private void tickWorld()
+	{
+		for (int i = 0; i < bodies.length; ++i)
+		{
+			// the world pushed the body apart last tick by moving its transform
+			Vector3 position = bodies[i].getTransform().getTranslation(positions[i]);
+			position.add(velocities[3 * i] * TICK, velocities[3 * i + 1] * TICK, velocities[3 * i + 2] * TICK);
+			for (int axis = 0; axis < 3; ++axis)
+			{
+				bounce(axis == 0 ? position.x : axis == 1 ? position.y : position.z, 3 * i + axis);
+			}
+			rotations[i].mulLeft(spin).nor();
+			setBodyTransform(i);
+		}
+
+		collisions += world.tick();
+		pairsTested += world.getPairCount();
+	}
+
+	/* ------------------------------- RUNNING ----------------------------- */
+
+	private void run(boolean is3D, int ticks)
+	{
+		// let the JIT compile the hot paths before measuring
+		int warmupTicks = Math.max(ticks / 10, 1);
+		for (int i = 0; i < warmupTicks; ++i)
+		{
+			tick(is3D);
+		}
+		pairsTested = 0;
+		collisions = 0;
+		SatMetrics.reset();
+
+		long[] tickNanos = new long[ticks];
+		long start = System.nanoTime();
+		for (int i = 0; i < ticks; ++i)
+		{
+			long tickStart = System.nanoTime();
+			tick(is3D);
+			tickNanos[i] = System.nanoTime() - tickStart;
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		Arrays.sort(tickNanos);
+		System.out.println((world != null ? "world" : is3D ? "3d" : "2d") + ", " + proxies.length + " shapes, " + ticks + " ticks, " + broadphase.getClass().getSimpleName() + (cache != null ? ", separating axis cache" : ""));
+		System.out.printf("pairs/s:     %.0f%n", pairsTested / seconds);
+		System.out.printf("ticks/s:     %.1f%n", ticks / seconds);
+		System.out.printf("collisions:  %.1f per tick%n", collisions / (double) ticks);
+		System.out.printf("tick p50:    %.3f ms%n", percentile(tickNanos, 0.50) / 1e6);
+		System.out.printf("tick p99:    %.3f ms%n", percentile(tickNanos, 0.99) / 1e6);
+		System.out.printf("tick max:    %.3f ms%n", tickNanos[ticks - 1] / 1e6);
+		if (SatMetrics.ENABLED)
+		{
+			System.out.println(SatMetrics.snapshot(new SatMetrics.Snapshot()));
+		}
+	}
+
+	private void tick(boolean is3D)
+	{
+		if (world != null)
+		{
+			tickWorld();
+		}
+		else if (is3D)
+		{
+			tick3D();
+		}
+		else
+		{
+			tick2D();
+		}
+	}
+
+	private static long percentile(long[] sorted, double fraction)
+	{
+		int index = (int) Math.ceil(fraction * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+	}
+}